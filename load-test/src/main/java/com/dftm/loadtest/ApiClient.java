@@ -0,0 +1,135 @@
+package com.dftm.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Tunn klient mot REST-API:t. Varje anrop tidtas och registreras under sin operation,
+ * fel (IO-fel och svar med 4xx/5xx) räknas separat.
+ */
+public class ApiClient {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+    private final LatencyRecorder recorder;
+
+    public ApiClient(String baseUrl, LatencyRecorder recorder) {
+        this.baseUrl = baseUrl;
+        this.recorder = recorder;
+    }
+
+    /**
+     * Registrerar en användare och returnerar dess token
+     */
+    public String register(String email, String role, String language) throws IOException, InterruptedException {
+        HttpResponse<String> response = send("auth.register", post("/api/v1/auth/register", null, Map.of(
+            "firstName", "Last",
+            "lastName", "Test",
+            "email", email,
+            "password", "load-test-password",
+            "role", role,
+            "preferredLanguage", language)));
+        return json(response).path("token").asText();
+    }
+
+    public String currentUserId(String token) throws IOException, InterruptedException {
+        return json(send("auth.me", get("/api/v1/auth/me", token, null))).path("id").asText();
+    }
+
+    public String createTask(String token, String title) throws IOException, InterruptedException {
+        HttpResponse<String> response = send("tasks.create", post("/api/v1/tasks", token, Map.of(
+            "title", title,
+            "description", "Skapad av lasttestet",
+            "status", "PENDING",
+            "priority", "MEDIUM")));
+        return json(response).path("id").asText();
+    }
+
+    /**
+     * En teknikers lista, skickar med senaste ETag så att oförändrade listor ger 304
+     *
+     * @return Ny ETag, eller den gamla om servern svarade 304
+     */
+    public String pollUserTasks(String token, String userId, String language, String etag)
+            throws IOException, InterruptedException {
+        HttpResponse<String> response = send("tasks.user", get(
+            "/api/v1/tasks/user/" + userId + "?language=" + language, token, etag));
+        return response.headers().firstValue("ETag").orElse(etag);
+    }
+
+    public void bulkAssign(String token, List<String> taskIds, String assignedTo) throws IOException, InterruptedException {
+        send("tasks.bulk-assign", HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/tasks/bulk"))
+            .timeout(REQUEST_TIMEOUT)
+            .header("Authorization", "Bearer " + token)
+            .header("Content-Type", "application/json")
+            .method("PATCH", HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(Map.of(
+                "taskIds", taskIds,
+                "assignedTo", assignedTo))))
+            .build());
+    }
+
+    public JsonNode pendingTasks(String token) throws IOException, InterruptedException {
+        return json(send("pending-tasks.list", get("/api/v1/pending-tasks", token, null)));
+    }
+
+    private HttpRequest get(String path, String token, String etag) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(REQUEST_TIMEOUT)
+            .header("Accept", "application/json")
+            .GET();
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        if (etag != null) {
+            builder.header("If-None-Match", etag);
+        }
+        return builder.build();
+    }
+
+    private HttpRequest post(String path, String token, Object body) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(REQUEST_TIMEOUT)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private HttpResponse<String> send(String operation, HttpRequest request) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            recorder.error(operation);
+            throw e;
+        }
+        long elapsed = System.nanoTime() - start;
+        if (response.statusCode() >= 400) {
+            recorder.error(operation);
+            throw new IOException(operation + " failed with HTTP " + response.statusCode() + ": " + response.body());
+        }
+        // 304 redovisas för sig, de är billiga och skulle annars dölja kostnaden för en full lista
+        recorder.record(response.statusCode() == 304 ? operation + " (304)" : operation, elapsed);
+        return response;
+    }
+
+    private JsonNode json(HttpResponse<String> response) throws IOException {
+        return objectMapper.readTree(response.body());
+    }
+}
@@ -0,0 +1,149 @@
+package com.dftm.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Startar backend-jaren som en egen process mot lokal Mongo, GreenMail och översättningsstubben.
+ * Loggen skrivs till target/app.log så att den går att läsa efter körningen.
+ */
+public class AppProcess implements AutoCloseable {
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(120);
+    private static final Pattern VERSION = Pattern.compile("version \"(\\d+)(?:\\.(\\d+))?");
+
+    private final LoadTestConfig config;
+    private final String translateBaseUrl;
+    private final String threadMode;
+    private Process process;
+
+    /**
+     * @param threadMode "platform" eller "virtual" sätter spring.threads.virtual.enabled, annat lämnar appens värde.
+     *                   Varje läge får en egen databas så att körningarna inte påverkar varandra.
+     */
+    public AppProcess(LoadTestConfig config, String translateBaseUrl, String threadMode) {
+        this.config = config;
+        this.translateBaseUrl = translateBaseUrl;
+        this.threadMode = threadMode;
+    }
+
+    /**
+     * Huvudversionen av den Java som backenden startas med, t.ex. 17 eller 21
+     */
+    public int javaFeatureVersion() throws IOException, InterruptedException {
+        Process version = new ProcessBuilder(javaExecutable(), "-version").redirectErrorStream(true).start();
+        String output = new String(version.getInputStream().readAllBytes());
+        version.waitFor();
+        Matcher matcher = VERSION.matcher(output);
+        if (!matcher.find()) {
+            throw new IllegalStateException("Could not read Java version from: " + output);
+        }
+        // "1.8.0_392" är Java 8, "21.0.1" är Java 21
+        int first = Integer.parseInt(matcher.group(1));
+        return first == 1 && matcher.group(2) != null ? Integer.parseInt(matcher.group(2)) : first;
+    }
+
+    public void start() throws IOException, InterruptedException {
+        if (!Files.exists(config.appJar())) {
+            throw new IllegalStateException("Backend jar not found at " + config.appJar().toAbsolutePath()
+                + ", run 'mvn -DskipTests package' in the backend first or set -Dlt.appJar");
+        }
+        Path log = Path.of("target", isForcedMode() ? "app-" + threadMode + ".log" : "app.log");
+        Files.createDirectories(log.getParent());
+
+        List<String> command = new ArrayList<>(List.of(
+            javaExecutable(),
+            "-jar", config.appJar().toString(),
+            "--spring.data.mongodb.database=" + database(),
+            "--mail.host=127.0.0.1",
+            "--mail.port=" + config.imapsPort(),
+            "--mail.ssl-trust=*",
+            "--google.translate.base-url=" + translateBaseUrl,
+            "--email.poll-interval-ms=" + config.appEmailPollMs(),
+            "--management.server.port=" + config.managementPort(),
+            "--management.tracing.sampling.probability=0",
+            "--logging.level.com.dftm=INFO"));
+        if ("platform".equals(threadMode) || "virtual".equals(threadMode)) {
+            command.add("--spring.threads.virtual.enabled=" + "virtual".equals(threadMode));
+        }
+        ProcessBuilder builder = new ProcessBuilder(command);
+        Map<String, String> env = builder.environment();
+        env.put("PORT", String.valueOf(config.appPort()));
+        env.put("MONGODB_URL", config.mongoUrl());
+        env.put("ACCESS_TOKEN_SECRET", randomSecret());
+        env.put("EMAIL_HOST", "127.0.0.1");
+        env.put("EMAIL_PORT", String.valueOf(config.smtpPort()));
+        env.put("EMAIL_USER", LoadTestMail.MAILBOX_LOGIN);
+        env.put("EMAIL_PASSWORD", LoadTestMail.MAILBOX_PASSWORD);
+        env.put("SMTP_HOST", "127.0.0.1");
+        env.put("SMTP_PORT", String.valueOf(config.smtpPort()));
+        env.put("SMTP_USER", LoadTestMail.MAILBOX_LOGIN);
+        env.put("SMTP_PASS", LoadTestMail.MAILBOX_PASSWORD);
+        env.put("GOOGLE_TRANSLATE_API_KEY", "load-test");
+        builder.redirectErrorStream(true);
+        builder.redirectOutput(log.toFile());
+
+        process = builder.start();
+        awaitHealthy();
+    }
+
+    private String database() {
+        return isForcedMode() ? config.mongoDatabase() + "_" + threadMode : config.mongoDatabase();
+    }
+
+    private boolean isForcedMode() {
+        return "platform".equals(threadMode) || "virtual".equals(threadMode);
+    }
+
+    private String javaExecutable() {
+        return config.appJavaHome().resolve("bin").resolve("java").toString();
+    }
+
+    private void awaitHealthy() throws InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        URI health = URI.create("http://127.0.0.1:" + config.managementPort() + "/actuator/health");
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Backend exited with code " + process.exitValue() + ", see the log in target/");
+            }
+            try {
+                HttpResponse<Void> response = client.send(HttpRequest.newBuilder(health).GET().build(),
+                    HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Inte uppe än
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("Backend did not become healthy within " + STARTUP_TIMEOUT);
+    }
+
+    private static String randomSecret() {
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        return Base64.getEncoder().encodeToString(key);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        if (process != null && process.isAlive()) {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.dftm.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Samlar latenser per operation och skriver ut genomströmning och percentiler.
+ * Alla mätvärden sparas, en körning ger några hundra tusen värden och det ryms gott.
+ */
+public class LatencyRecorder {
+    private final Map<String, Series> series = new ConcurrentHashMap<>();
+
+    public void record(String operation, long nanos) {
+        series.computeIfAbsent(operation, key -> new Series()).add(nanos);
+    }
+
+    public void error(String operation) {
+        series.computeIfAbsent(operation, key -> new Series()).error();
+    }
+
+    /**
+     * Genomströmning och p99 per operation, för att jämföra två körningar
+     */
+    public Map<String, Summary> summarize(double elapsedSeconds) {
+        Map<String, Summary> summaries = new TreeMap<>();
+        series.forEach((operation, values) -> {
+            long[] sorted = values.sorted();
+            summaries.put(operation, new Summary(sorted.length, values.errors(),
+                elapsedSeconds > 0 ? sorted.length / elapsedSeconds : 0.0,
+                millis(percentile(sorted, 99))));
+        });
+        return summaries;
+    }
+
+    public record Summary(long count, int errors, double perSecond, double p99Millis) {
+    }
+
+    public String report(String title, double elapsedSeconds) {
+        StringBuilder out = new StringBuilder();
+        out.append('\n').append(title).append('\n');
+        out.append(String.format("%-34s %8s %7s %9s %9s %9s %9s %9s%n",
+            "operation", "count", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        new TreeMap<>(series).forEach((operation, values) -> {
+            long[] sorted = values.sorted();
+            out.append(String.format("%-34s %8d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                operation,
+                sorted.length,
+                values.errors(),
+                elapsedSeconds > 0 ? sorted.length / elapsedSeconds : 0.0,
+                millis(percentile(sorted, 50)),
+                millis(percentile(sorted, 95)),
+                millis(percentile(sorted, 99)),
+                millis(sorted.length > 0 ? sorted[sorted.length - 1] : 0)));
+        });
+        return out.toString();
+    }
+
+    static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static final class Series {
+        private long[] values = new long[1024];
+        private int size;
+        private int errors;
+
+        synchronized void add(long nanos) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nanos;
+        }
+
+        synchronized void error() {
+            errors++;
+        }
+
+        synchronized int errors() {
+            return errors;
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
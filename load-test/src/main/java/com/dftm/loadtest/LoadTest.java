@@ -0,0 +1,261 @@
+package com.dftm.loadtest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import jakarta.mail.Transport;
+
+/**
+ * Lasttest av hela kedjan: tekniker som pollar sina listor, arbetsledare som
+ * bulktilldelar och en storm av felanmälningar som ska bli synliga som väntande uppgifter.
+ *
+ * Kräver en lokal MongoDB (lt.mongoUrl) och en byggd backend-jar (lt.appJar).
+ * Körs med: mvn -q compile exec:java -Dlt.technicians=100
+ */
+public class LoadTest {
+    private static final String[] LANGUAGES = { "SV", "EN", "PL", "UK" };
+    private static final long VISIBILITY_POLL_MS = 250;
+
+    private final LoadTestConfig config;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final LatencyRecorder requests = new LatencyRecorder();
+    private final LatencyRecorder visibility = new LatencyRecorder();
+    private final ApiClient api;
+
+    private String adminToken;
+    private final List<String> dispatcherTokens = new ArrayList<>();
+    private final List<Technician> technicians = new ArrayList<>();
+    private final List<String> taskIds = new CopyOnWriteArrayList<>();
+
+    private record Technician(String token, String id, String language) {
+    }
+
+    public LoadTest(LoadTestConfig config) {
+        this.config = config;
+        this.api = new ApiClient(config.apiBaseUrl(), requests);
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        if (config.compareThreads() && !config.launchApp()) {
+            throw new IllegalStateException("-Dlt.threads=compare starts the backend itself and cannot be used with -Dlt.baseUrl");
+        }
+        List<String> modes = config.compareThreads() ? List.of("platform", "virtual") : List.of(config.threads());
+        ThreadComparison comparison = new ThreadComparison();
+        try (TranslateStub translateStub = new TranslateStub(config.translatePort(), config.translateLatencyMs());
+             LoadTestMail mail = new LoadTestMail(config.smtpPort(), config.imapsPort())) {
+            translateStub.start();
+            mail.start();
+            for (String mode : modes) {
+                try (AppProcess app = new AppProcess(config, "http://127.0.0.1:" + config.translatePort(), mode)) {
+                    if (config.launchApp()) {
+                        int javaVersion = app.javaFeatureVersion();
+                        if ("virtual".equals(mode) && javaVersion < 21) {
+                            // Spring Boot ignorerar spring.threads.virtual.enabled före Java 21, jämförelsen vore meningslös
+                            throw new IllegalStateException("Virtual threads need Java 21+, backend would run on Java "
+                                + javaVersion + ". Point -Dlt.appJavaHome at a JDK 21.");
+                        }
+                        log("Starting backend from %s on Java %d (threads: %s)", config.appJar(), javaVersion, mode);
+                        app.start();
+                    }
+                    comparison.add(mode, new LoadTest(config).run(mail));
+                }
+            }
+        }
+        if (config.compareThreads()) {
+            System.out.println(comparison.report("platform", "virtual"));
+        }
+    }
+
+    /**
+     * @return Genomströmning och p99 per operation, för jämförelser mellan körningar
+     */
+    Map<String, LatencyRecorder.Summary> run(LoadTestMail mail) throws Exception {
+        setUp();
+        log("Running %d technicians and %d dispatchers for %d s, %d fault reports after %d s",
+            config.technicians(), config.dispatchers(), config.durationSeconds(), config.emails(), config.warmupSeconds());
+
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(config.durationSeconds());
+        ExecutorService users = Executors.newFixedThreadPool(config.technicians() + config.dispatchers());
+        List<Future<?>> running = new ArrayList<>();
+        for (Technician technician : technicians) {
+            running.add(users.submit(() -> technicianLoop(technician, deadline)));
+        }
+        for (int i = 0; i < config.dispatchers(); i++) {
+            String token = dispatcherTokens.get(i);
+            running.add(users.submit(() -> dispatcherLoop(token, deadline)));
+        }
+
+        TimeUnit.SECONDS.sleep(config.warmupSeconds());
+        long stormNanos = emailStorm(mail);
+
+        for (Future<?> future : running) {
+            future.get();
+        }
+        users.shutdown();
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println(requests.report(String.format("HTTP under load (%.0f s)", elapsedSeconds), elapsedSeconds));
+        System.out.println(visibility.report(String.format(
+            "Fault reports, send to visible as pending task (%.1f s from first send to last visible)", stormNanos / 1e9),
+            stormNanos / 1e9));
+
+        Map<String, LatencyRecorder.Summary> summaries = new TreeMap<>(requests.summarize(elapsedSeconds));
+        summaries.putAll(visibility.summarize(stormNanos / 1e9));
+        return summaries;
+    }
+
+    /**
+     * Skapar administratör, arbetsledare, tekniker och ett grundlager av uppgifter
+     */
+    private void setUp() throws Exception {
+        adminToken = api.register("admin-" + runId + "@loadtest.local", "ROLE_ADMIN", "SV");
+        for (int i = 0; i < config.dispatchers(); i++) {
+            dispatcherTokens.add(api.register("dispatcher-" + i + "-" + runId + "@loadtest.local", "ROLE_ADMIN", "SV"));
+        }
+        for (int i = 0; i < config.technicians(); i++) {
+            String language = LANGUAGES[i % LANGUAGES.length];
+            String token = api.register("technician-" + i + "-" + runId + "@loadtest.local", "ROLE_USER", language);
+            technicians.add(new Technician(token, api.currentUserId(token), language));
+        }
+
+        ExecutorService seeders = Executors.newFixedThreadPool(8);
+        List<Future<?>> seeding = new ArrayList<>();
+        for (int i = 0; i < config.seedTasks(); i++) {
+            String title = "Lasttest " + runId + " #" + i;
+            seeding.add(seeders.submit(() -> {
+                taskIds.add(api.createTask(adminToken, title));
+                return null;
+            }));
+        }
+        for (Future<?> future : seeding) {
+            future.get();
+        }
+        seeders.shutdown();
+        log("Seeded %d users and %d tasks", config.technicians() + config.dispatchers() + 1, taskIds.size());
+    }
+
+    private void technicianLoop(Technician technician, long deadline) {
+        String etag = null;
+        // Sprid starten så att alla inte pollar i takt
+        pause(ThreadLocalRandom.current().nextLong(config.technicianPollMs() + 1));
+        while (System.nanoTime() < deadline) {
+            try {
+                etag = api.pollUserTasks(technician.token(), technician.id(), technician.language(), etag);
+            } catch (IOException e) {
+                etag = null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            pause(config.technicianPollMs());
+        }
+    }
+
+    private void dispatcherLoop(String token, long deadline) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            List<String> batch = new ArrayList<>(taskIds);
+            Collections.shuffle(batch, random);
+            batch = batch.subList(0, Math.min(config.bulkSize(), batch.size()));
+            String assignee = technicians.get(random.nextInt(technicians.size())).id();
+            try {
+                api.bulkAssign(token, batch, assignee);
+            } catch (IOException e) {
+                // Räknat som fel i rapporten
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            pause(config.dispatcherIntervalMs());
+        }
+    }
+
+    /**
+     * Skickar alla felanmälningar och väntar tills var och en syns bland de väntande uppgifterna
+     *
+     * @return Nanosekunder från första skickade mejl till sista synliga uppgift
+     */
+    private long emailStorm(LoadTestMail mail) throws Exception {
+        Map<String, Long> sentAt = new ConcurrentHashMap<>();
+        long stormStart = System.nanoTime();
+
+        ExecutorService senders = Executors.newFixedThreadPool(config.emailSenders());
+        List<Future<?>> sending = new ArrayList<>();
+        for (int sender = 0; sender < config.emailSenders(); sender++) {
+            int first = sender;
+            sending.add(senders.submit(() -> {
+                try (Transport transport = mail.openTransport()) {
+                    for (int n = first; n < config.emails(); n += config.emailSenders()) {
+                        String marker = "[LT-" + runId + "-" + n + "]";
+                        sentAt.put(marker, System.nanoTime());
+                        mail.sendFaultReport(transport, n, marker);
+                    }
+                }
+                return null;
+            }));
+        }
+        senders.shutdown();
+
+        Pattern markerPattern = Pattern.compile("\\[LT-" + runId + "-\\d+]");
+        Map<String, Boolean> seen = new ConcurrentHashMap<>();
+        long lastVisible = stormStart;
+        long timeout = stormStart + TimeUnit.SECONDS.toNanos(config.visibleTimeoutSeconds());
+        while (seen.size() < config.emails() && System.nanoTime() < timeout) {
+            try {
+                JsonNode pending = api.pendingTasks(adminToken);
+                long now = System.nanoTime();
+                for (JsonNode task : pending) {
+                    Matcher matcher = markerPattern.matcher(task.path("description").asText(""));
+                    if (matcher.find()) {
+                        String marker = matcher.group();
+                        Long sent = sentAt.get(marker);
+                        if (sent != null && seen.putIfAbsent(marker, Boolean.TRUE) == null) {
+                            visibility.record("email.time-to-visible", now - sent);
+                            lastVisible = now;
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                // Räknat som fel i rapporten
+            }
+            pause(VISIBILITY_POLL_MS);
+        }
+        for (Future<?> future : sending) {
+            future.get();
+        }
+        for (int i = seen.size(); i < config.emails(); i++) {
+            visibility.error("email.time-to-visible");
+        }
+        log("%d of %d fault reports became visible", seen.size(), config.emails());
+        return lastVisible - stormStart;
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void log(String format, Object... args) {
+        System.out.println("[load-test] " + String.format(format, args));
+    }
+}
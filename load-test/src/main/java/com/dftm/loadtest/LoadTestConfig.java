@@ -0,0 +1,93 @@
+package com.dftm.loadtest;
+
+import java.nio.file.Path;
+
+/**
+ * Inställningar för en lastkörning. Allt kan överstyras med -Dlt.&lt;namn&gt;=värde,
+ * t.ex. -Dlt.technicians=200 -Dlt.durationSeconds=300.
+ *
+ * threads styr spring.threads.virtual.enabled i den startade backenden: "default" lämnar
+ * appens inställning, "platform" och "virtual" tvingar den, "compare" kör hela testet en gång
+ * med vardera och skriver ut en jämförelse. Virtuella trådar kräver att appJavaHome är en JDK 21+.
+ */
+public record LoadTestConfig(
+        Path appJar,
+        Path appJavaHome,
+        String threads,
+        String baseUrl,
+        int appPort,
+        int managementPort,
+        String mongoUrl,
+        String mongoDatabase,
+        int smtpPort,
+        int imapsPort,
+        int translatePort,
+        long translateLatencyMs,
+        int technicians,
+        long technicianPollMs,
+        int dispatchers,
+        long dispatcherIntervalMs,
+        int bulkSize,
+        int seedTasks,
+        int emails,
+        int emailSenders,
+        long appEmailPollMs,
+        long warmupSeconds,
+        long durationSeconds,
+        long visibleTimeoutSeconds) {
+
+    public static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+            Path.of(string("appJar", "../target/dftm-backend-1.0-SNAPSHOT.jar")),
+            Path.of(string("appJavaHome", System.getProperty("java.home"))),
+            string("threads", "default"),
+            string("baseUrl", null),
+            integer("appPort", 18080),
+            integer("managementPort", 18081),
+            string("mongoUrl", "mongodb://localhost:27017"),
+            string("mongoDatabase", "dftm_loadtest"),
+            integer("smtpPort", 3025),
+            integer("imapsPort", 3993),
+            integer("translatePort", 18090),
+            longValue("translateLatencyMs", 40),
+            integer("technicians", 50),
+            longValue("technicianPollMs", 2000),
+            integer("dispatchers", 5),
+            longValue("dispatcherIntervalMs", 1000),
+            integer("bulkSize", 50),
+            integer("seedTasks", 1000),
+            integer("emails", 500),
+            integer("emailSenders", 4),
+            longValue("appEmailPollMs", 1000),
+            longValue("warmupSeconds", 10),
+            longValue("durationSeconds", 120),
+            longValue("visibleTimeoutSeconds", 300));
+    }
+
+    /**
+     * Startar appen själv om ingen extern bas-URL har angetts
+     */
+    public boolean launchApp() {
+        return baseUrl == null;
+    }
+
+    public boolean compareThreads() {
+        return "compare".equals(threads);
+    }
+
+    public String apiBaseUrl() {
+        return launchApp() ? "http://localhost:" + appPort : baseUrl;
+    }
+
+    private static String string(String name, String defaultValue) {
+        return System.getProperty("lt." + name, defaultValue);
+    }
+
+    private static int integer(String name, int defaultValue) {
+        return Integer.parseInt(string(name, String.valueOf(defaultValue)));
+    }
+
+    private static long longValue(String name, long defaultValue) {
+        return Long.parseLong(string(name, String.valueOf(defaultValue)));
+    }
+}
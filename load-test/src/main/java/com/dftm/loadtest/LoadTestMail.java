@@ -0,0 +1,76 @@
+package com.dftm.loadtest;
+
+import java.util.Properties;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * GreenMail med SMTP och IMAPS i samma process. Felanmälningarna skickas via SMTP
+ * till brevlådan som backend läser över IMAPS, med samma avsändare, Reply-To och
+ * fältformat som formuläret på webbplatsen använder.
+ */
+public class LoadTestMail implements AutoCloseable {
+    static final String MAILBOX = "felanmalan@duggalsfastigheter.se";
+    static final String MAILBOX_LOGIN = "felanmalan";
+    static final String MAILBOX_PASSWORD = "load-test";
+    // dev-profilen kräver denna Reply-To, prod kräver mottagaren ovan, båda sätts
+    private static final String REPLY_TO = "mikael.engvall.me@gmail.com";
+
+    private final GreenMail greenMail;
+    private final Session smtpSession;
+
+    public LoadTestMail(int smtpPort, int imapsPort) {
+        greenMail = new GreenMail(new ServerSetup[] {
+            new ServerSetup(smtpPort, "127.0.0.1", ServerSetup.PROTOCOL_SMTP),
+            new ServerSetup(imapsPort, "127.0.0.1", ServerSetup.PROTOCOL_IMAPS)
+        });
+        Properties properties = new Properties();
+        properties.put("mail.smtp.host", "127.0.0.1");
+        properties.put("mail.smtp.port", String.valueOf(smtpPort));
+        smtpSession = Session.getInstance(properties);
+    }
+
+    public void start() {
+        greenMail.start();
+        greenMail.setUser(MAILBOX, MAILBOX_LOGIN, MAILBOX_PASSWORD);
+    }
+
+    /**
+     * Öppnar en SMTP-anslutning per avsändartråd, Transport är inte trådsäker
+     */
+    public Transport openTransport() throws MessagingException {
+        Transport transport = smtpSession.getTransport("smtp");
+        transport.connect();
+        return transport;
+    }
+
+    public void sendFaultReport(Transport transport, int number, String marker) throws MessagingException {
+        MimeMessage message = new MimeMessage(smtpSession);
+        message.setFrom(new InternetAddress(MAILBOX));
+        message.setReplyTo(new InternetAddress[] { new InternetAddress(REPLY_TO) });
+        message.setRecipient(Message.RecipientType.TO, new InternetAddress(MAILBOX));
+        message.setSubject("Felanmälan " + number, "UTF-8");
+        message.setText(String.join("\n",
+            "Namn: Hyresgäst " + number,
+            "E-post: hyresgast" + number + "@example.com",
+            "Telefonnummer: 070-" + String.format("%07d", number),
+            "Adress: Testgatan " + (number % 40 + 1),
+            "Lägenhetsnummer: " + (1000 + number % 300),
+            "Meddelande: Kranen i köket droppar hela tiden " + marker), "UTF-8");
+        message.saveChanges();
+        transport.sendMessage(message, message.getAllRecipients());
+    }
+
+    @Override
+    public void close() {
+        greenMail.stop();
+    }
+}
@@ -0,0 +1,45 @@
+package com.dftm.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Ställer körningar med olika trådmodell (lt.threads=compare) mot varandra per operation:
+ * genomströmning och p99 för vardera samt skillnaden i procent.
+ */
+public class ThreadComparison {
+    private final Map<String, Map<String, LatencyRecorder.Summary>> runs = new LinkedHashMap<>();
+
+    public void add(String mode, Map<String, LatencyRecorder.Summary> summaries) {
+        runs.put(mode, summaries);
+    }
+
+    public String report(String baseline, String candidate) {
+        Map<String, LatencyRecorder.Summary> before = runs.getOrDefault(baseline, Map.of());
+        Map<String, LatencyRecorder.Summary> after = runs.getOrDefault(candidate, Map.of());
+        StringBuilder out = new StringBuilder();
+        out.append('\n').append(String.format("Thread model comparison, %s vs %s%n", baseline, candidate));
+        out.append(String.format("%-34s %11s %11s %8s %11s %11s %8s%n",
+            "operation", baseline + " r/s", candidate + " r/s", "diff", baseline + " p99", candidate + " p99", "diff"));
+        TreeSet<String> operations = new TreeSet<>(before.keySet());
+        operations.addAll(after.keySet());
+        for (String operation : operations) {
+            LatencyRecorder.Summary a = before.get(operation);
+            LatencyRecorder.Summary b = after.get(operation);
+            out.append(String.format("%-34s %11s %11s %8s %11s %11s %8s%n",
+                operation,
+                a != null ? String.format("%.1f", a.perSecond()) : "-",
+                b != null ? String.format("%.1f", b.perSecond()) : "-",
+                a != null && b != null ? change(a.perSecond(), b.perSecond()) : "",
+                a != null ? String.format("%.1f ms", a.p99Millis()) : "-",
+                b != null ? String.format("%.1f ms", b.p99Millis()) : "-",
+                a != null && b != null ? change(a.p99Millis(), b.p99Millis()) : ""));
+        }
+        return out.toString();
+    }
+
+    private static String change(double before, double after) {
+        return before > 0 ? String.format("%+.0f%%", (after - before) / before * 100) : "";
+    }
+}
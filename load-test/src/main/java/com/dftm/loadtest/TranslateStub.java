@@ -0,0 +1,98 @@
+package com.dftm.loadtest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Lokal ersättare för Google Translate v2. Översättningen ekar texten tillbaka
+ * så att markörerna i felanmälningarna går att hitta, detektering svarar alltid "sv".
+ * En fast fördröjning per anrop efterliknar leverantörens svarstid.
+ */
+public class TranslateStub implements AutoCloseable {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newFixedThreadPool(16);
+    private final long latencyMs;
+
+    public TranslateStub(int port, long latencyMs) throws IOException {
+        this.latencyMs = latencyMs;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        // HttpServer matchar längsta prefix, så detect hamnar inte i översättningen
+        server.createContext("/language/translate/v2/detect", exchange -> respond(exchange, detect()));
+        server.createContext("/language/translate/v2", exchange -> respond(exchange, translate(query(exchange))));
+        server.setExecutor(executor);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private ObjectNode translate(Map<String, String> query) {
+        ObjectNode root = objectMapper.createObjectNode();
+        root.putObject("data").putArray("translations").addObject()
+            .put("translatedText", query.getOrDefault("q", ""));
+        return root;
+    }
+
+    private ObjectNode detect() {
+        ObjectNode root = objectMapper.createObjectNode();
+        root.putObject("data").putArray("detections").addArray().addObject()
+            .put("language", "sv")
+            .put("confidence", 1.0);
+        return root;
+    }
+
+    private void respond(HttpExchange exchange, ObjectNode body) throws IOException {
+        try {
+            if (latencyMs > 0) {
+                Thread.sleep(latencyMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null) {
+            return params;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -12,6 +12,8 @@ import org.springframework.web.util.UriComponentsBuilder;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import lombok.extern.slf4j.Slf4j;
 
 @Component
@@ -20,26 +22,34 @@ public class GoogleTranslateClient {
     
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
+    private final ObservationRegistry observationRegistry;
     
     @Value("${google.translate.api.key}")
     private String apiKey;
     
-    private static final String TRANSLATE_URL = "https://translation.googleapis.com/language/translate/v2";
-    private static final String DETECT_URL = "https://translation.googleapis.com/language/translate/v2/detect";
+    // Kan pekas om mot en lokal stubbe, t.ex. vid lasttester
+    @Value("${google.translate.base-url:https://translation.googleapis.com}")
+    private String baseUrl;
     
-    public GoogleTranslateClient() {
+    private static final String TRANSLATE_PATH = "/language/translate/v2";
+    private static final String DETECT_PATH = "/language/translate/v2/detect";
+    
+    public GoogleTranslateClient(ObservationRegistry observationRegistry) {
         this.restTemplate = new RestTemplate();
         this.objectMapper = new ObjectMapper();
+        this.observationRegistry = observationRegistry;
     }
     
     public String translate(String text, String sourceLanguage, String targetLanguage) {
-        try {
-            if (text == null || text.trim().isEmpty()) {
-                return text;
-            }
+        if (text == null || text.trim().isEmpty()) {
+            return text;
+        }
+        Observation observation = startObservation("translate", targetLanguage);
+        String outcome = "error";
+        try (Observation.Scope scope = observation.openScope()) {
             
             // Bygg URL med parametrar
-            UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(TRANSLATE_URL)
+            UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(baseUrl + TRANSLATE_PATH)
                 .queryParam("key", apiKey)
                 .queryParam("q", text)
                 .queryParam("target", targetLanguage);
@@ -66,14 +76,19 @@ public class GoogleTranslateClient {
             
             if (translations.isArray() && translations.size() > 0) {
                 String translatedText = translations.get(0).path("translatedText").asText();
+                outcome = "success";
                 return decodeHtmlEntities(translatedText);
             }
             
             log.warn("Kunde inte översätta text: Inga översättningar i svaret");
+            outcome = "empty";
             return text;
         } catch (Exception e) {
             log.error("Fel vid översättning: {}", e.getMessage(), e);
+            observation.error(e);
             return text; // Returnera originaltext vid fel
+        } finally {
+            observation.lowCardinalityKeyValue("outcome", outcome).stop();
         }
     }
     
@@ -95,13 +110,15 @@ public class GoogleTranslateClient {
      * @return Språkkod (t.ex. "sv", "en")
      */
     public String detectLanguage(String text) {
-        try {
-            if (text == null || text.trim().isEmpty()) {
-                return "sv"; // Standard för tom text
-            }
+        if (text == null || text.trim().isEmpty()) {
+            return "sv"; // Standard för tom text
+        }
+        Observation observation = startObservation("detect", "auto");
+        String outcome = "error";
+        try (Observation.Scope scope = observation.openScope()) {
             
             // Bygg URL med parametrar
-            UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(DETECT_URL)
+            UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(baseUrl + DETECT_PATH)
                 .queryParam("key", apiKey)
                 .queryParam("q", text);
             
@@ -125,17 +142,33 @@ public class GoogleTranslateClient {
                 detections.get(0).isArray() && detections.get(0).size() > 0) {
                 String detectedLanguage = detections.get(0).get(0).path("language").asText();
                 log.debug("Detekterat språk: {}", detectedLanguage);
+                outcome = "success";
                 return detectedLanguage;
             }
             
             log.warn("Kunde inte detektera språk: Inga detektioner i svaret");
+            outcome = "empty";
             return "sv"; // Standardspråk om detektion misslyckas
         } catch (Exception e) {
             log.error("Fel vid språkdetektering: {}", e.getMessage(), e);
+            observation.error(e);
             return "sv"; // Standardspråk vid fel
+        } finally {
+            observation.lowCardinalityKeyValue("outcome", outcome).stop();
         }
     }
     
+    /**
+     * Ger både ett spann och tidtagningen dftm.translate.requests per anrop
+     */
+    private Observation startObservation(String operation, String language) {
+        return Observation.createNotStarted("dftm.translate.requests", observationRegistry)
+            .contextualName("google-translate " + operation)
+            .lowCardinalityKeyValue("operation", operation)
+            .lowCardinalityKeyValue("language", String.valueOf(language))
+            .start();
+    }
+    
     /**
      * Avkodar HTML-entiteter i översatt text
      * 
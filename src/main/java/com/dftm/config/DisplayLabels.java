@@ -0,0 +1,74 @@
+package com.dftm.config;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.context.MessageSource;
+import org.springframework.stereotype.Component;
+
+import com.dftm.model.Language;
+import com.dftm.model.Role;
+import com.dftm.model.TaskPriority;
+import com.dftm.model.TaskStatus;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Färdiga visningsnamn för status, prioritet och roll per språk. Tabellerna byggs
+ * en gång vid uppstart för varje språk i {@link Language} och indexeras på enumens ordinal,
+ * så att listor kan översätta etiketter utan uppslag i MessageSource per rad.
+ */
+@Component
+@Slf4j
+public class DisplayLabels {
+    private final Map<String, Labels> byLanguage;
+    private final Labels fallback;
+
+    private record Labels(String[] status, String[] priority, String[] role) {
+    }
+
+    public DisplayLabels(MessageSource messageSource) {
+        Map<String, Labels> tables = new HashMap<>();
+        for (Language language : Language.values()) {
+            tables.put(language.getCode(), build(messageSource, Locale.forLanguageTag(language.getCode())));
+        }
+        this.byLanguage = Map.copyOf(tables);
+        // Samma upplösning som MessageSource gör för språk utan egen fil
+        this.fallback = build(messageSource, Locale.ROOT);
+        log.info("Built display label tables for languages {}", byLanguage.keySet());
+    }
+
+    public String status(TaskStatus status, Locale locale) {
+        return labels(locale).status()[status.ordinal()];
+    }
+
+    public String priority(TaskPriority priority, Locale locale) {
+        return labels(locale).priority()[priority.ordinal()];
+    }
+
+    public String role(Role role, Locale locale) {
+        return labels(locale).role()[role.ordinal()];
+    }
+
+    private Labels labels(Locale locale) {
+        Labels labels = byLanguage.get(locale.getLanguage());
+        return labels != null ? labels : fallback;
+    }
+
+    private static Labels build(MessageSource messageSource, Locale locale) {
+        return new Labels(
+                resolve(messageSource, "status.", TaskStatus.values(), locale),
+                resolve(messageSource, "priority.", TaskPriority.values(), locale),
+                resolve(messageSource, "role.", Role.values(), locale));
+    }
+
+    // Saknas en nyckel används enumnamnet i stället för att kasta NoSuchMessageException
+    private static String[] resolve(MessageSource messageSource, String prefix, Enum<?>[] values, Locale locale) {
+        String[] labels = new String[values.length];
+        for (Enum<?> value : values) {
+            labels[value.ordinal()] = messageSource.getMessage(prefix + value.name(), null, value.name(), locale);
+        }
+        return labels;
+    }
+}
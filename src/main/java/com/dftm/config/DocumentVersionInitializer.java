@@ -0,0 +1,44 @@
+package com.dftm.config;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.dftm.model.PendingTask;
+import com.dftm.model.Task;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Ger dokument som skapades före införandet av @Version ett startvärde.
+ * Utan det tolkar Spring Data en saknad version som ett nytt dokument och
+ * försöker göra insert i stället för uppdatering. Körs när alla singletons är skapade,
+ * före webbservern startar, så att ingen begäran hinner spara ett dokument utan version.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DocumentVersionInitializer implements SmartInitializingSingleton {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        initializeVersion(Task.class);
+        initializeVersion(PendingTask.class);
+    }
+
+    private void initializeVersion(Class<?> documentType) {
+        long updated = mongoTemplate.updateMulti(
+                Query.query(Criteria.where("version").exists(false)),
+                new Update().set("version", 0L),
+                documentType).getModifiedCount();
+        if (updated > 0) {
+            log.info("Initialized version field on {} {} documents", updated, documentType.getSimpleName());
+        }
+    }
+}
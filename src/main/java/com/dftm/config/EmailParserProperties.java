@@ -0,0 +1,23 @@
+package com.dftm.config;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+/**
+ * Egna parserprofiler utöver de inbyggda, per profil och fält en lista med etiketter:
+ * email.parser.profiles.hsb.name=Hyresgäst:,Namn:
+ * email.parser.profiles.hsb.description=Ärende:
+ * En profil med samma namn som en inbyggd ersätter den.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "email.parser")
+@Data
+public class EmailParserProperties {
+    private Map<String, Map<String, List<String>>> profiles = new HashMap<>();
+}
@@ -0,0 +1,42 @@
+package com.dftm.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+/**
+ * Brevlådor som felanmälningar läses från, en per fastighetsbolag. Anges som
+ * email.ingest.sources[0].name=..., email.ingest.sources[0].host=... och så vidare.
+ * Saknas sources används mail.* och de gamla adressreglerna som enda källa.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "email.ingest")
+@Data
+public class EmailSourceProperties {
+    // Hur många brevlådor som läses samtidigt, varje läsning håller en IMAP-anslutning
+    private int maxConcurrentPolls = 4;
+    private List<Source> sources = new ArrayList<>();
+
+    @Data
+    public static class Source {
+        private String name;
+        private boolean enabled = true;
+        private String host;
+        private int port = 993;
+        private String username;
+        private String password;
+        private String folder = "INBOX";
+        private String sslTrust;
+
+        // Filterregler, en tom lista betyder att regeln inte används
+        private List<String> senders = new ArrayList<>();
+        private List<String> recipients = new ArrayList<>();
+        private List<String> replyTo = new ArrayList<>();
+
+        private String parserProfile = "standard";
+    }
+}
@@ -13,4 +13,6 @@ public class JavaMailProperties {
     private int port;
     private String username;
     private String password;
+    // Värdar vars certifikat litas på utan kontroll, t.ex. en lokal testserver
+    private String sslTrust;
 } 
\ No newline at end of file
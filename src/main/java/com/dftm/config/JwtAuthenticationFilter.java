@@ -11,6 +11,8 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -25,6 +27,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final MeterRegistry meterRegistry;
 
     @Override
     protected void doFilterInternal(
@@ -47,6 +50,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         final String jwt = authHeader.substring(7);
+        Timer.Sample validationSample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            outcome = authenticate(jwt, request);
+        } finally {
+            validationSample.stop(meterRegistry.timer("dftm.jwt.validation", "outcome", outcome));
+        }
+        
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Validerar token och sätter autentiseringen i SecurityContext
+     * 
+     * @return Utfallet, används som tagg på valideringstiden
+     */
+    private String authenticate(String jwt, HttpServletRequest request) {
         String userEmail = jwtService.extractUsername(jwt);
         
         log.info("JWT token extracted for user: {}", userEmail);
@@ -66,18 +86,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 SecurityContextHolder.getContext().setAuthentication(authToken);
                 
                 log.info("Authentication set in SecurityContext: {}", authToken);
-            } else {
-                log.warn("Token validation failed for user: {}", userEmail);
-            }
-        } else {
-            if (userEmail == null) {
-                log.warn("Could not extract username from token");
-            }
-            if (SecurityContextHolder.getContext().getAuthentication() != null) {
-                log.info("Authentication already exists in SecurityContext");
+                return "valid";
             }
+            log.warn("Token validation failed for user: {}", userEmail);
+            return "invalid";
         }
-        
-        filterChain.doFilter(request, response);
+        if (userEmail == null) {
+            log.warn("Could not extract username from token");
+            return "invalid";
+        }
+        log.info("Authentication already exists in SecurityContext");
+        return "skipped";
     }
 } 
\ No newline at end of file
@@ -14,6 +14,8 @@ public class MessageConfig {
         ReloadableResourceBundleMessageSource messageSource = new ReloadableResourceBundleMessageSource();
         messageSource.setBasename("classpath:messages");
         messageSource.setDefaultEncoding("UTF-8");
+        // Språk utan egen fil får messages.properties oavsett serverns locale, som DisplayLabels
+        messageSource.setFallbackToSystemLocale(false);
         return messageSource;
     }
 
@@ -0,0 +1,34 @@
+package com.dftm.config;
+
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.observability.ContextProviderFactory;
+import org.springframework.data.mongodb.observability.MongoObservationCommandListener;
+
+import io.micrometer.observation.ObservationRegistry;
+
+@Configuration
+public class MongoConfig {
+
+    // Transaktioner kräver att MongoDB körs som replica set (t.ex. Atlas)
+    @Bean
+    public MongoTransactionManager transactionManager(MongoDatabaseFactory databaseFactory) {
+        return new MongoTransactionManager(databaseFactory);
+    }
+
+    // Ett spann per Mongo-kommando, kopplat till det spann som gjorde anropet
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoObservationCustomizer(ObservationRegistry observationRegistry) {
+        return builder -> builder
+                .contextProvider(ContextProviderFactory.create(observationRegistry))
+                .addCommandListener(new MongoObservationCommandListener(observationRegistry));
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoQueryProfilerCustomizer(MongoQueryProfiler mongoQueryProfiler) {
+        return builder -> builder.addCommandListener(mongoQueryProfiler);
+    }
+}
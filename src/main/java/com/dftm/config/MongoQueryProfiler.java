@@ -0,0 +1,181 @@
+package com.dftm.config;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Mäter alla Mongo-kommandon, räknar dem per request via QueryStats och loggar
+ * frågor som tar längre tid än mongo.profiler.slow-query-ms tillsammans med
+ * filtrets form (värden ersatta med ?). Långsamma läsfrågor körs även genom
+ * explain en gång per form för att hitta frågor som saknar index (COLLSCAN).
+ */
+@Component
+@Slf4j
+public class MongoQueryProfiler implements CommandListener {
+    private static final Set<String> QUERY_COMMANDS = Set.of(
+            "find", "aggregate", "count", "distinct", "findAndModify", "update", "delete", "insert", "getMore");
+    private static final Set<String> EXPLAINABLE_COMMANDS = Set.of("find", "aggregate", "count", "distinct");
+    // Fält som drivrutinen lägger till och som inte får skickas med i explain
+    private static final Set<String> DRIVER_FIELDS = Set.of(
+            "$db", "lsid", "$clusterTime", "txnNumber", "autocommit", "startTransaction",
+            "$readPreference", "readConcern");
+
+    private final Map<Integer, Started> inFlight = new ConcurrentHashMap<>();
+    private final Set<String> explainedShapes = ConcurrentHashMap.newKeySet();
+    private final Executor explainExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "mongo-explain");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ObjectProvider<MongoTemplate> mongoTemplate;
+    private final boolean enabled;
+    private final long slowQueryMillis;
+    private final boolean explainSlowQueries;
+
+    private record Started(String command, String collection, String shape, String database,
+            BsonDocument explainable, QueryStats stats, long startNanos) {
+    }
+
+    public MongoQueryProfiler(
+            ObjectProvider<MongoTemplate> mongoTemplate,
+            @Value("${mongo.profiler.enabled:true}") boolean enabled,
+            @Value("${mongo.profiler.slow-query-ms:100}") long slowQueryMillis,
+            @Value("${mongo.profiler.explain-slow-queries:true}") boolean explainSlowQueries) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.slowQueryMillis = slowQueryMillis;
+        this.explainSlowQueries = explainSlowQueries;
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        String command = event.getCommandName();
+        if (!enabled || !QUERY_COMMANDS.contains(command)) {
+            return;
+        }
+        BsonDocument body = event.getCommand();
+        BsonValue target = body.get(command);
+        String collection = target != null && target.isString() ? target.asString().getValue() : "-";
+        BsonDocument explainable = explainSlowQueries && EXPLAINABLE_COMMANDS.contains(command)
+                ? withoutDriverFields(body)
+                : null;
+        inFlight.put(event.getRequestId(), new Started(command, collection, shapeOf(body), event.getDatabaseName(),
+                explainable, QueryStats.current(), System.nanoTime()));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        finish(event.getRequestId());
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        finish(event.getRequestId());
+    }
+
+    private void finish(int requestId) {
+        Started started = inFlight.remove(requestId);
+        if (started == null) {
+            return;
+        }
+        long nanos = System.nanoTime() - started.startNanos();
+        long millis = nanos / 1_000_000;
+        if (started.stats() != null) {
+            started.stats().record(new QueryStats.Query(
+                    started.command(), started.collection(), started.shape(), millis), nanos);
+        }
+        if (millis >= slowQueryMillis) {
+            log.warn("Slow Mongo {} on {} took {} ms: {}", started.command(), started.collection(), millis, started.shape());
+            if (started.explainable() != null && explainedShapes.add(started.command() + started.shape())) {
+                explainExecutor.execute(() -> explain(started));
+            }
+        }
+    }
+
+    private void explain(Started started) {
+        try {
+            Document plan = mongoTemplate.getObject().getMongoDatabaseFactory()
+                    .getMongoDatabase(started.database())
+                    .runCommand(new Document("explain", started.explainable()).append("verbosity", "queryPlanner"));
+            if (containsCollscan(plan)) {
+                log.warn("Mongo {} on {} uses a collection scan (COLLSCAN), consider an index: {}",
+                        started.command(), started.collection(), started.shape());
+            }
+        } catch (Exception e) {
+            log.debug("Could not explain {} on {}: {}", started.command(), started.collection(), e.getMessage());
+        }
+    }
+
+    private boolean containsCollscan(Object node) {
+        if (node instanceof Map<?, ?> map) {
+            if ("COLLSCAN".equals(map.get("stage"))) {
+                return true;
+            }
+            return map.values().stream().anyMatch(this::containsCollscan);
+        }
+        if (node instanceof Iterable<?> list) {
+            for (Object item : list) {
+                if (containsCollscan(item)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private BsonDocument withoutDriverFields(BsonDocument command) {
+        BsonDocument copy = new BsonDocument();
+        command.forEach((key, value) -> {
+            if (!DRIVER_FIELDS.contains(key)) {
+                copy.put(key, value.isDocument() ? value.asDocument().clone() : value);
+            }
+        });
+        return copy;
+    }
+
+    /**
+     * Filtrets eller pipelinens form med alla värden ersatta, t.ex. {"archived": "?", "assignedTo": "?"}
+     */
+    private String shapeOf(BsonDocument command) {
+        BsonValue query = command.containsKey("filter") ? command.get("filter")
+                : command.containsKey("pipeline") ? command.get("pipeline")
+                : command.containsKey("query") ? command.get("query")
+                : command.containsKey("updates") ? command.get("updates")
+                : command.get("deletes");
+        return query == null ? "{}" : mask(query).toString();
+    }
+
+    private BsonValue mask(BsonValue value) {
+        if (value.isDocument()) {
+            BsonDocument masked = new BsonDocument();
+            value.asDocument().forEach((key, child) -> masked.put(key, mask(child)));
+            return masked;
+        }
+        if (value.isArray()) {
+            BsonArray masked = new BsonArray();
+            value.asArray().forEach(child -> masked.add(mask(child)));
+            return masked;
+        }
+        return new BsonString("?");
+    }
+}
@@ -0,0 +1,30 @@
+package com.dftm.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+/**
+ * Vikter och gränser för prioritetsbedömningen av felanmälningar. Egna nyckelord läggs
+ * till eller ersätter inbyggda med priority.keywords[nyckelord]=vikt, hakparenteserna
+ * behövs för å, ä, ö och mellanslag. Nyckelord är hela ord om de inte markeras som
+ * ordstam med asterisk, t.ex. priority.keywords[vattenskad*]=10. Vikt 0 stänger av ett
+ * inbyggt nyckelord, negativa vikter drar mot LOW.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "priority")
+@Data
+public class PriorityRuleProperties {
+    private boolean enabled = true;
+
+    // Poäng som krävs för URGENT respektive HIGH, och högsta poäng som ger LOW
+    private int urgentThreshold = 10;
+    private int highThreshold = 5;
+    private int lowThreshold = -3;
+
+    private Map<String, Integer> keywords = new HashMap<>();
+}
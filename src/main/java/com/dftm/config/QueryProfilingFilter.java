@@ -0,0 +1,52 @@
+package com.dftm.config;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Räknar Mongo-kommandon per request och varnar när en request gör
+ * misstänkt många, vilket oftast betyder en fråga per rad (N+1).
+ * Ligger före säkerhetsfiltren så att användaruppslaget för JWT också räknas.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class QueryProfilingFilter extends OncePerRequestFilter {
+
+    @Value("${mongo.profiler.request-warn-count:20}")
+    private int requestWarnCount;
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        QueryStats stats = new QueryStats();
+        QueryStats previous = QueryStats.begin(stats);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            QueryStats.end(previous);
+            if (stats.getCount() > requestWarnCount) {
+                log.warn("{} {} ran {} Mongo queries in {} ms: {}", request.getMethod(), request.getRequestURI(),
+                        stats.getCount(), stats.getTotalMillis(), stats.getQueries());
+            } else {
+                log.debug("{} {} ran {} Mongo queries in {} ms", request.getMethod(), request.getRequestURI(),
+                        stats.getCount(), stats.getTotalMillis());
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.dftm.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Mongo-kommandon som körts på den aktuella tråden under en request eller ett
+ * mätfönster i QueryBudget. Fylls på av MongoQueryProfiler.
+ */
+public class QueryStats {
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+    private final List<Query> queries = Collections.synchronizedList(new ArrayList<>());
+    private volatile long totalNanos;
+
+    public record Query(String command, String collection, String shape, long durationMillis) {
+        @Override
+        public String toString() {
+            return command + " " + collection + " " + shape + " (" + durationMillis + " ms)";
+        }
+    }
+
+    /**
+     * Startar en ny mätning på tråden och returnerar den som var aktiv innan, så att den kan återställas
+     */
+    static QueryStats begin(QueryStats stats) {
+        QueryStats previous = CURRENT.get();
+        CURRENT.set(stats);
+        return previous;
+    }
+
+    static void end(QueryStats previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    static QueryStats current() {
+        return CURRENT.get();
+    }
+
+    void record(Query query, long nanos) {
+        queries.add(query);
+        totalNanos += nanos;
+    }
+
+    public int getCount() {
+        return queries.size();
+    }
+
+    public long getTotalMillis() {
+        return totalNanos / 1_000_000;
+    }
+
+    public List<Query> getQueries() {
+        synchronized (queries) {
+            return List.copyOf(queries);
+        }
+    }
+}
@@ -40,6 +40,8 @@ public class SecurityConfig {
                 // Tillåt alla auth-relaterade endpoints utan autentisering
                 auth.requestMatchers("/api/v1/auth/**").permitAll();
                 auth.requestMatchers("/api/v1/health").permitAll();
+                // Actuator lyssnar på en egen port bunden till localhost, se management.server.*
+                auth.requestMatchers("/actuator/health", "/actuator/prometheus").permitAll();
                 auth.requestMatchers(HttpMethod.OPTIONS, "/**").permitAll();
                 
                 // Skyddade endpoints som kräver autentisering och specifika roller
@@ -0,0 +1,30 @@
+package com.dftm.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Loggar vilken trådmodell appen faktiskt kör med. spring.threads.virtual.enabled
+ * ignoreras tyst av Spring Boot före Java 21, så en varning visar när inställningen
+ * inte får någon effekt.
+ */
+@Component
+@Slf4j
+public class ThreadModelReporter implements CommandLineRunner {
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    @Override
+    public void run(String... args) {
+        int javaVersion = Runtime.version().feature();
+        if (virtualThreadsEnabled && javaVersion < 21) {
+            log.warn("spring.threads.virtual.enabled is set but the runtime is Java {}, using platform threads", javaVersion);
+        } else {
+            log.info("Running on Java {} with {} threads", javaVersion, virtualThreadsEnabled ? "virtual" : "platform");
+        }
+    }
+}
@@ -14,6 +14,7 @@ import com.dftm.config.JwtService;
 import com.dftm.dto.AuthenticationRequest;
 import com.dftm.dto.AuthenticationResponse;
 import com.dftm.dto.RegisterRequest;
+import com.dftm.dto.UserListView;
 import com.dftm.model.User;
 import com.dftm.repository.UserRepository;
 import com.dftm.service.AuthenticationService;
@@ -55,7 +56,7 @@ public class AuthenticationController {
     }
     
     @GetMapping("/me")
-    public ResponseEntity<User> getCurrentUser(Authentication authentication) {
+    public ResponseEntity<UserListView> getCurrentUser(Authentication authentication) {
         log.debug("GET request to fetch current user information");
         if (authentication == null || !authentication.isAuthenticated()) {
             return ResponseEntity.status(401).build();
@@ -68,7 +69,7 @@ public class AuthenticationController {
             User user = userService.findByEmail(email)
                     .orElseThrow(() -> new RuntimeException("User not found with email: " + email));
             
-            return ResponseEntity.ok(user);
+            return ResponseEntity.ok(UserListView.from(user));
         } catch (Exception e) {
             log.error("Error fetching current user: {}", e.getMessage(), e);
             return ResponseEntity.status(500).build();
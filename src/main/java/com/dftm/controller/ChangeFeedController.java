@@ -0,0 +1,47 @@
+package com.dftm.controller;
+
+import java.util.Set;
+
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.dftm.service.ChangeFeedService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/v1/changes")
+@RequiredArgsConstructor
+@Slf4j
+public class ChangeFeedController {
+    private static final Set<String> ADMIN_AUTHORITIES = Set.of("ROLE_ADMIN", "ROLE_SUPERADMIN");
+
+    private final ChangeFeedService changeFeedService;
+
+    /**
+     * Strömmar ändringar av uppgifter och felanmälningar som Server-Sent Events.
+     * Vid återanslutning skickas Last-Event-ID (eller lastEventId) för att få de missade ändringarna.
+     * Kommer id:t från en annan serverprocess skickas ett reset-event och klienten ska hämta allt igen.
+     * Andra än administratörer får bara id:t för ändrade felanmälningar.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_SUPERADMIN', 'ROLE_USER')")
+    public SseEmitter streamChanges(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+            @RequestParam(required = false) String lastEventId,
+            Authentication authentication) {
+        String resumeFrom = lastEventIdHeader != null ? lastEventIdHeader : lastEventId;
+        log.debug("GET /api/v1/changes/stream - subscribing from event {}", resumeFrom);
+        boolean admin = authentication.getAuthorities().stream()
+                .anyMatch(authority -> ADMIN_AUTHORITIES.contains(authority.getAuthority()));
+        return changeFeedService.subscribe(resumeFrom, admin);
+    }
+}
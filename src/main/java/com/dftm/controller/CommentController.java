@@ -3,6 +3,7 @@ package com.dftm.controller;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -15,9 +16,11 @@ import org.springframework.web.bind.annotation.RestController;
 import com.dftm.model.Comment;
 import com.dftm.model.Language;
 import com.dftm.service.CommentService;
+import com.dftm.service.TaskStreamService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
 
 @RestController
 @RequestMapping("/api/v1/tasks/{taskId}/comments")
@@ -25,6 +28,7 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class CommentController {
     private final CommentService commentService;
+    private final TaskStreamService taskStreamService;
 
     /**
      * Lägger till en kommentar för en specifik uppgift
@@ -66,4 +70,27 @@ public class CommentController {
         
         return commentService.getTranslatedComments(taskId, lang);
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Samma kommentarer som GET men strömmade som NDJSON från den reaktiva drivrutinen
+     * 
+     * @param taskId ID för uppgiften
+     * @param language Språket som kommentarerna ska översättas till
+     * @return Ström med kommentarer
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyAuthority('ROLE_USER', 'ROLE_ADMIN', 'ROLE_SUPERADMIN')")
+    public Flux<Comment> streamComments(
+            @PathVariable String taskId,
+            @RequestParam(required = false, defaultValue = "SV") String language) {
+        
+        Language lang;
+        try {
+            lang = Language.valueOf(language);
+        } catch (IllegalArgumentException e) {
+            lang = Language.SV; // Default till svenska om ogiltig språkkod
+        }
+        
+        return taskStreamService.streamTranslatedComments(taskId, lang);
+    }
+}
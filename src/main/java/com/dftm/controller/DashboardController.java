@@ -0,0 +1,28 @@
+package com.dftm.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.dftm.dto.DashboardStatistics;
+import com.dftm.service.StatisticsService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/v1/dashboard")
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardController {
+    private final StatisticsService statisticsService;
+
+    @GetMapping("/statistics")
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_SUPERADMIN')")
+    public ResponseEntity<DashboardStatistics> getStatistics() {
+        log.debug("GET request to fetch dashboard statistics");
+        return ResponseEntity.ok(statisticsService.getStatistics());
+    }
+}
@@ -0,0 +1,59 @@
+package com.dftm.controller;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.dftm.dto.ReparsedEmail;
+import com.dftm.model.ArchivedEmail;
+import com.dftm.service.EmailArchiveService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+
+@RestController
+@RequestMapping("/api/v1/email-archive")
+@RequiredArgsConstructor
+@Slf4j
+public class EmailArchiveController {
+    private static final MediaType MESSAGE_RFC822 = MediaType.parseMediaType("message/rfc822");
+
+    private final EmailArchiveService emailArchiveService;
+
+    @GetMapping("/pending-task/{pendingTaskId}")
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_SUPERADMIN')")
+    public ResponseEntity<List<ArchivedEmail>> getByPendingTask(@PathVariable String pendingTaskId) {
+        log.debug("GET request to fetch archived emails for pending task: {}", pendingTaskId);
+        return ResponseEntity.ok(emailArchiveService.getByPendingTaskId(pendingTaskId));
+    }
+
+    @GetMapping("/{id}/raw")
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_SUPERADMIN')")
+    public ResponseEntity<byte[]> getRawMessage(@PathVariable String id) throws IOException {
+        log.debug("GET request to download archived email: {}", id);
+        return ResponseEntity.ok()
+            .contentType(MESSAGE_RFC822)
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(id + ".eml").build().toString())
+            .body(emailArchiveService.getRawMessage(id));
+    }
+
+    @GetMapping(value = "/reparse", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_SUPERADMIN')")
+    public Flux<ReparsedEmail> reparse(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String profile) {
+        log.info("GET request to reparse the email archive, after: {}, profile: {}", after, profile);
+        return emailArchiveService.reparse(after, profile);
+    }
+}
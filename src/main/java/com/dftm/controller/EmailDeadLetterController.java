@@ -0,0 +1,60 @@
+package com.dftm.controller;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.dftm.dto.BulkOperationResult;
+import com.dftm.dto.ReplayDeadLettersRequest;
+import com.dftm.model.EmailDeadLetter;
+import com.dftm.service.EmailDeadLetterService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/v1/email-dead-letters")
+@RequiredArgsConstructor
+@Slf4j
+public class EmailDeadLetterController {
+    private static final MediaType MESSAGE_RFC822 = MediaType.parseMediaType("message/rfc822");
+
+    private final EmailDeadLetterService emailDeadLetterService;
+
+    @GetMapping
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_SUPERADMIN')")
+    public ResponseEntity<List<EmailDeadLetter>> getDeadLetters(@RequestParam(required = false) String status) {
+        log.debug("GET request to fetch email dead letters, status: {}", status);
+        return ResponseEntity.ok(emailDeadLetterService.getDeadLetters(status));
+    }
+
+    @GetMapping("/{id}/raw")
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_SUPERADMIN')")
+    public ResponseEntity<byte[]> getRawMessage(@PathVariable String id) throws IOException {
+        log.debug("GET request to download raw dead letter: {}", id);
+        return ResponseEntity.ok()
+            .contentType(MESSAGE_RFC822)
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(id + ".eml").build().toString())
+            .body(emailDeadLetterService.getRawMessage(id));
+    }
+
+    @PostMapping("/replay")
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_SUPERADMIN')")
+    public ResponseEntity<BulkOperationResult> replay(@RequestBody(required = false) ReplayDeadLettersRequest request) {
+        BulkOperationResult result = emailDeadLetterService.replay(request != null ? request : new ReplayDeadLettersRequest());
+        log.info("Dead letter replay finished: {} of {} succeeded", result.getSucceeded(), result.getRequested());
+        return ResponseEntity.ok(result);
+    }
+}
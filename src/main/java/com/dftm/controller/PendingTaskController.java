@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -19,6 +20,10 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.dftm.dto.BuildingSummary;
+import com.dftm.dto.BulkOperationResult;
+import com.dftm.dto.BulkPendingTaskRequest;
+import com.dftm.exception.ConflictException;
 import com.dftm.model.PendingTask;
 import com.dftm.repository.PendingTaskRepository;
 import com.dftm.service.PendingTaskService;
@@ -52,6 +57,21 @@ public class PendingTaskController {
         return ResponseEntity.ok(result);
     }
 
+    @GetMapping("/buildings")
+    public ResponseEntity<List<BuildingSummary>> getBuildingSummaries() {
+        log.info("GET /api/v1/pending-tasks/buildings - Fetching pending task counts per building");
+        return ResponseEntity.ok(pendingTaskService.getBuildingSummaries());
+    }
+
+    @GetMapping("/by-building")
+    public ResponseEntity<List<PendingTask>> getPendingTasksByBuilding(
+            @RequestParam String address,
+            @RequestParam(defaultValue = "true") boolean openOnly) {
+        log.info("GET /api/v1/pending-tasks/by-building - Fetching pending tasks for address: {}, openOnly: {}",
+                address, openOnly);
+        return ResponseEntity.ok(pendingTaskService.getPendingTasksByAddress(address, openOnly));
+    }
+
     @PatchMapping("/{id}/approve")
     @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_SUPERADMIN')")
     public ResponseEntity<PendingTask> approvePendingTask(
@@ -66,6 +86,29 @@ public class PendingTaskController {
         return ResponseEntity.ok(approvedTask);
     }
     
+    @PatchMapping("/bulk/approve")
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_SUPERADMIN')")
+    public ResponseEntity<BulkOperationResult> approvePendingTasks(@RequestBody BulkPendingTaskRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        log.info("PATCH /api/v1/pending-tasks/bulk/approve - Approving {} pending tasks",
+                request.getIds() != null ? request.getIds().size() : 0);
+        
+        BulkOperationResult result = pendingTaskService.approvePendingTasks(request, authentication.getName());
+        log.info("Bulk approve finished: {} of {} succeeded", result.getSucceeded(), result.getRequested());
+        return ResponseEntity.ok(result);
+    }
+    
+    @PatchMapping("/bulk/reject")
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_SUPERADMIN')")
+    public ResponseEntity<BulkOperationResult> rejectPendingTasks(@RequestBody BulkPendingTaskRequest request) {
+        log.info("PATCH /api/v1/pending-tasks/bulk/reject - Rejecting {} pending tasks",
+                request.getIds() != null ? request.getIds().size() : 0);
+        
+        BulkOperationResult result = pendingTaskService.rejectPendingTasks(request);
+        log.info("Bulk reject finished: {} of {} succeeded", result.getSucceeded(), result.getRequested());
+        return ResponseEntity.ok(result);
+    }
+    
     @PatchMapping("/{id}/assign")
     @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_SUPERADMIN')")
     public ResponseEntity<PendingTask> assignPendingTask(
@@ -75,29 +118,13 @@ public class PendingTaskController {
         String userId = assignMap.get("userId");
         log.debug("PATCH request to assign pending task, ID: {}, to user: {}", id, userId);
         
-        try {
-            Optional<PendingTask> taskOptional = pendingTaskRepository.findById(id);
-            
-            if (taskOptional.isPresent()) {
-                PendingTask task = taskOptional.get();
-                task.setAssignedToUserId(userId);
-                
-                // Använd aktuell användares ID som assignedByUserId
-                Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-                String assignerEmail = authentication.getName();
-                task.setAssignedByUserId(assignerEmail); // Här kan du behöva konvertera e-postadressen till ett användar-ID
-                
-                PendingTask updatedTask = pendingTaskRepository.save(task);
-                log.info("Successfully assigned pending task with ID: {} to user: {}", id, userId);
-                return ResponseEntity.ok(updatedTask);
-            } else {
-                log.warn("Pending task with ID {} not found for assignment", id);
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
-            }
-        } catch (Exception e) {
-            log.error("Error assigning pending task with ID {} to user {}: {}", id, userId, e.getMessage(), e);
-            throw new RuntimeException("Failed to assign pending task: " + e.getMessage(), e);
-        }
+        // Använd aktuell användares ID som assignedByUserId
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String assignerEmail = authentication.getName(); // Här kan du behöva konvertera e-postadressen till ett användar-ID
+        
+        PendingTask updatedTask = pendingTaskService.assignPendingTask(id, userId, assignerEmail);
+        log.info("Successfully assigned pending task with ID: {} to user: {}", id, userId);
+        return ResponseEntity.ok(updatedTask);
     }
     
     @PatchMapping("/{id}/reject")
@@ -201,6 +228,9 @@ public class PendingTaskController {
                 log.warn("Pending task with ID {} not found for update", id);
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
             }
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("Pending task with ID {} was modified concurrently", id);
+            throw new ConflictException("Pending task was modified concurrently: " + id);
         } catch (Exception e) {
             log.error("Error updating pending task with ID {}: {}", id, e.getMessage(), e);
             throw new RuntimeException("Failed to update pending task: " + e.getMessage(), e);
@@ -221,23 +251,8 @@ public class PendingTaskController {
             return ResponseEntity.badRequest().build();
         }
         
-        try {
-            Optional<PendingTask> taskOptional = pendingTaskRepository.findById(id);
-            
-            if (taskOptional.isPresent()) {
-                PendingTask task = taskOptional.get();
-                task.setStatus(status);
-                
-                PendingTask updatedTask = pendingTaskRepository.save(task);
-                log.info("Successfully updated status for pending task with ID: {}", updatedTask.getId());
-                return ResponseEntity.ok(updatedTask);
-            } else {
-                log.warn("Pending task with ID {} not found for status update", id);
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
-            }
-        } catch (Exception e) {
-            log.error("Error updating status for pending task with ID {}: {}", id, e.getMessage(), e);
-            throw new RuntimeException("Failed to update pending task status: " + e.getMessage(), e);
-        }
+        PendingTask updatedTask = pendingTaskService.updatePendingTaskStatus(id, status);
+        log.info("Successfully updated status for pending task with ID: {}", updatedTask.getId());
+        return ResponseEntity.ok(updatedTask);
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.dftm.controller;
+
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.dftm.dto.SearchHit;
+import com.dftm.exception.BadRequestException;
+import com.dftm.model.Language;
+import com.dftm.model.SearchSourceType;
+import com.dftm.service.SearchIndexService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/v1/search")
+@RequiredArgsConstructor
+@Slf4j
+public class SearchController {
+    private static final int MAX_LIMIT = 100;
+
+    private final SearchIndexService searchIndexService;
+
+    @GetMapping
+    @PreAuthorize("hasAnyAuthority('ROLE_USER', 'ROLE_ADMIN', 'ROLE_SUPERADMIN')")
+    public ResponseEntity<List<SearchHit>> search(
+            @RequestParam String q,
+            @RequestParam(required = false, defaultValue = "SV") Language language,
+            @RequestParam(required = false) Set<SearchSourceType> type,
+            @RequestParam(required = false, defaultValue = "20") int limit) {
+        
+        if (q.trim().isEmpty()) {
+            throw new BadRequestException("Search text cannot be empty");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        
+        log.debug("GET request to search for '{}', language: {}, types: {}", q, language, type);
+        return ResponseEntity.ok(searchIndexService.search(q, language, type, limit));
+    }
+
+    @PostMapping("/reindex")
+    @PreAuthorize("hasAuthority('ROLE_SUPERADMIN')")
+    public ResponseEntity<Integer> reindex() {
+        log.info("POST request to rebuild search index");
+        return ResponseEntity.ok(searchIndexService.reindexAll());
+    }
+}
@@ -2,11 +2,14 @@ package com.dftm.controller;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -21,20 +24,28 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.dftm.config.DisplayLabels;
+import com.dftm.dto.BulkOperationResult;
+import com.dftm.dto.BulkTaskUpdateRequest;
+import com.dftm.dto.TaskDelta;
+import com.dftm.dto.TaskFilter;
 import com.dftm.dto.TaskRequest;
+import com.dftm.dto.TaskSummaryView;
 import com.dftm.model.Language;
 import com.dftm.model.Task;
 import com.dftm.model.TaskPriority;
 import com.dftm.model.TaskStatus;
 import com.dftm.repository.CommentRepository;
-import com.dftm.repository.PendingTaskRepository;
-import com.dftm.repository.TaskRepository;
+import com.dftm.service.PendingTaskService;
 import com.dftm.service.TaskService;
+import com.dftm.service.TaskStreamService;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
 
 @RestController
 @RequestMapping("/api/v1/tasks")
@@ -43,14 +54,31 @@ import lombok.extern.slf4j.Slf4j;
 public class TaskController {
     private final TaskService taskService;
     private final MessageSource messageSource;
-    private final PendingTaskRepository pendingTaskRepository;
-    private final TaskRepository taskRepository;
+    private final DisplayLabels displayLabels;
+    private final PendingTaskService pendingTaskService;
+    private final TaskStreamService taskStreamService;
     private final CommentRepository commentRepository;
 
     private String getMessage(String code) {
         return messageSource.getMessage(code, null, LocaleContextHolder.getLocale());
     }
 
+    // Etiketterna översätts efter Accept-Language, så språket ingår i ETaggen
+    private String listEtag(String listVersion) {
+        return "\"" + listVersion + "-" + LocaleContextHolder.getLocale().toLanguageTag() + "\"";
+    }
+
+    private void translateLabels(TaskSummaryView task) {
+        translateLabels(task, LocaleContextHolder.getLocale());
+    }
+
+    // Strömmande svar körs på drivrutinens trådar där LocaleContextHolder inte är satt
+    private TaskSummaryView translateLabels(TaskSummaryView task, Locale locale) {
+        task.setStatusDisplay(displayLabels.status(task.getStatus(), locale));
+        task.setPriorityDisplay(displayLabels.priority(task.getPriority(), locale));
+        return task;
+    }
+
     @PostMapping
     @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_SUPERADMIN')")
     public ResponseEntity<Task> createTask(@Valid @RequestBody TaskRequest taskRequest) {
@@ -70,18 +98,69 @@ public class TaskController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Task>> getAllTasks(
+    public ResponseEntity<?> getAllTasks(
             @RequestParam(required = false) Language language,
-            @RequestParam(required = false, defaultValue = "false") Boolean archived) {
+            @RequestParam(required = false, defaultValue = "false") Boolean archived,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            WebRequest webRequest) {
         
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         log.info("GET /tasks request. User: {}, Authorities: {}", 
             auth.getName(), 
             auth.getAuthorities());
         
-        List<Task> tasks = archived ? taskService.getAllTasks() : taskService.getNonArchivedTasks();
+        if (since != null) {
+            return ResponseEntity.ok(taskService.getTaskDelta(since, archived, language));
+        }
+        
+        String etag = listEtag(taskService.getTaskListVersion(archived, language));
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        
+        List<TaskSummaryView> tasks = archived
+            ? taskService.getAllTaskSummaries(language)
+            : taskService.getNonArchivedTaskSummaries(language);
         log.info("Found {} tasks", tasks.size());
         
+        return ResponseEntity.ok().eTag(etag).body(tasks);
+    }
+    
+    /**
+     * Samma lista som GET /api/v1/tasks men strömmad som NDJSON från den reaktiva drivrutinen
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<TaskSummaryView> streamTasks(
+            @RequestParam(required = false) Language language,
+            @RequestParam(required = false, defaultValue = "false") Boolean archived) {
+        
+        log.debug("GET request to stream tasks, archived: {}, language: {}", archived, language);
+        Locale locale = LocaleContextHolder.getLocale();
+        return taskStreamService.streamTaskSummaries(archived, language)
+            .map(task -> translateLabels(task, locale));
+    }
+    
+    @GetMapping(value = "/user/{userId}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<TaskSummaryView> streamTasksByAssignedTo(
+            @PathVariable String userId,
+            @RequestParam(required = false) Language language,
+            @RequestParam(required = false, defaultValue = "false") Boolean archived) {
+        
+        log.debug("GET request to stream tasks assigned to user: {}, archived: {}, language: {}", userId, archived, language);
+        Locale locale = LocaleContextHolder.getLocale();
+        return taskStreamService.streamTaskSummariesByAssignedTo(userId, archived, language)
+            .map(task -> translateLabels(task, locale));
+    }
+    
+    @GetMapping("/search")
+    public ResponseEntity<List<TaskSummaryView>> searchTasks(
+            TaskFilter filter,
+            @RequestParam(required = false) Language language) {
+        
+        log.debug("GET request to search tasks, filter: {}, language: {}", filter, language);
+        List<TaskSummaryView> tasks = taskService.searchTasks(filter, language);
+        tasks.forEach(this::translateLabels);
+        
         return ResponseEntity.ok(tasks);
     }
     
@@ -92,8 +171,9 @@ public class TaskController {
         
         log.debug("GET request to fetch task with ID: {}, language: {}", taskId, language);
         Task translatedTask = taskService.getTranslatedTask(taskId, language);
-        translatedTask.setStatusDisplay(getMessage("status." + translatedTask.getStatus().name()));
-        translatedTask.setPriorityDisplay(getMessage("priority." + translatedTask.getPriority().name()));
+        Locale locale = LocaleContextHolder.getLocale();
+        translatedTask.setStatusDisplay(displayLabels.status(translatedTask.getStatus(), locale));
+        translatedTask.setPriorityDisplay(displayLabels.priority(translatedTask.getPriority(), locale));
         return ResponseEntity.ok(translatedTask);
     }
     
@@ -129,11 +209,7 @@ public class TaskController {
             
         log.info("PUT-anrop för att uppdatera uppgiftsstatus: ID={}, Status={}", taskId, status);
         
-        Task currentTask = taskService.getTaskById(taskId);
-        log.info("Nuvarande uppgift: ID={}, Status={}", taskId, currentTask.getStatus());
-        
         try {
-            log.debug("Uppdaterar uppgiftsstatus från {} till {}", currentTask.getStatus(), status);
             Task updatedTask = taskService.updateTaskStatus(taskId, status);
             log.info("Uppgift uppdaterad: ID={}, Ny status={}", updatedTask.getId(), updatedTask.getStatus());
             return ResponseEntity.ok()
@@ -155,10 +231,6 @@ public class TaskController {
         
         String statusStr = statusMap.get("status");
         log.info("Inkommande status från klient: {}", statusStr);
-        
-        Task currentTask = taskService.getTaskById(taskId);
-        log.info("Nuvarande uppgift: ID={}, Status={}, Behörigheter krävs: {}", 
-            taskId, currentTask.getStatus(), "ROLE_ADMIN, ROLE_SUPERADMIN, ROLE_USER");
             
         try {
             TaskStatus status = TaskStatus.valueOf(statusStr);
@@ -191,6 +263,16 @@ public class TaskController {
                 .body(updatedTask);
     }
     
+    @PatchMapping("/bulk")
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_SUPERADMIN')")
+    public ResponseEntity<BulkOperationResult> bulkUpdateTasks(@RequestBody BulkTaskUpdateRequest request) {
+        log.debug("PATCH request to bulk update {} tasks", request.getTaskIds() != null ? request.getTaskIds().size() : 0);
+        
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        BulkOperationResult result = taskService.bulkUpdateTasks(request, authentication.getName());
+        return ResponseEntity.ok(result);
+    }
+    
     @PatchMapping("/{taskId}/priority")
     public ResponseEntity<Task> updateTaskPriority(
             @PathVariable String taskId,
@@ -230,46 +312,43 @@ public class TaskController {
     }
     
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Task>> getTasksByAssignedTo(
+    public ResponseEntity<?> getTasksByAssignedTo(
             @PathVariable String userId,
             @RequestParam(required = false) Language language,
-            @RequestParam(required = false, defaultValue = "false") Boolean archived) {
+            @RequestParam(required = false, defaultValue = "false") Boolean archived,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            WebRequest webRequest) {
             
-        log.debug("GET request to fetch tasks assigned to user: {}, archived: {}, language: {}", 
-                userId, archived, language);
-                
-        List<Task> tasks = taskService.getTasksByAssignedToAndArchived(userId, archived);
+        log.debug("GET request to fetch tasks assigned to user: {}, archived: {}, language: {}, since: {}", 
+                userId, archived, language, since);
+        
+        if (since != null) {
+            TaskDelta delta = taskService.getTaskDeltaByAssignedTo(userId, archived, since, language);
+            delta.getChanged().forEach(this::translateLabels);
+            return ResponseEntity.ok(delta);
+        }
         
-        List<Task> translatedTasks = tasks.stream()
-            .map(task -> {
-                Task translatedTask = taskService.getTranslatedTask(task.getId(), language);
-                translatedTask.setStatusDisplay(getMessage("status." + translatedTask.getStatus().name()));
-                translatedTask.setPriorityDisplay(getMessage("priority." + translatedTask.getPriority().name()));
-                return translatedTask;
-            })
-            .collect(Collectors.toList());
+        String etag = listEtag(taskService.getTaskListVersionByAssignedTo(userId, archived, language));
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+                
+        List<TaskSummaryView> tasks = taskService.getTaskSummariesByAssignedToAndArchived(userId, archived, language);
+        tasks.forEach(this::translateLabels);
         
-        return ResponseEntity.ok(translatedTasks);
+        return ResponseEntity.ok().eTag(etag).body(tasks);
     }
     
     @GetMapping("/pending")
-    public ResponseEntity<List<Task>> getPendingTasks(
+    public ResponseEntity<List<TaskSummaryView>> getPendingTasks(
             @RequestParam(required = false) Language language) {
             
         log.debug("GET request to fetch pending tasks, language: {}", language);
         
-        List<Task> tasks = taskService.getTasksByStatus(TaskStatus.PENDING);
+        List<TaskSummaryView> tasks = taskService.getTaskSummariesByStatus(TaskStatus.PENDING, language);
+        tasks.forEach(this::translateLabels);
         
-        List<Task> translatedTasks = tasks.stream()
-            .map(task -> {
-                Task translatedTask = taskService.getTranslatedTask(task.getId(), language);
-                translatedTask.setStatusDisplay(getMessage("status." + translatedTask.getStatus().name()));
-                translatedTask.setPriorityDisplay(getMessage("priority." + translatedTask.getPriority().name()));
-                return translatedTask;
-            })
-            .collect(Collectors.toList());
-        
-        return ResponseEntity.ok(translatedTasks);
+        return ResponseEntity.ok(tasks);
     }
     
     @PostMapping("/{taskId}/approve")
@@ -284,24 +363,8 @@ public class TaskController {
     @PostMapping("/{id}/approve-pending")
     public ResponseEntity<Void> approvePendingTask(@PathVariable String id) {
         try {
-            var pendingTask = pendingTaskRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Pending task not found"));
-            
-            Task task = Task.builder()
-                .title("Felanmälan från " + pendingTask.getName() + " - " + pendingTask.getAddress() + " " + pendingTask.getApartment())
-                .description(pendingTask.getDescription())
-                .reporter(pendingTask.getEmail())
-                .status(TaskStatus.PENDING)
-                .priority(TaskPriority.MEDIUM)
-                .createdAt(pendingTask.getReceived())
-                .updatedAt(LocalDateTime.now())
-                .assignedTo("")
-                .build();
-
-            taskRepository.save(task);
-            
-            pendingTask.setStatus("APPROVED");
-            pendingTaskRepository.save(pendingTask);
+            // Samma godkännandeflöde som /api/v1/pending-tasks/{id}/approve
+            pendingTaskService.approvePendingTask(id);
             
             return ResponseEntity.ok().build();
         } catch (Exception e) {
@@ -313,10 +376,7 @@ public class TaskController {
     @PostMapping("/{id}/reject")
     public ResponseEntity<Void> rejectTask(@PathVariable String id) {
         try {
-            var task = taskRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Task not found"));
-            task.setStatus(TaskStatus.NOT_FEASIBLE);
-            taskRepository.save(task);
+            taskService.updateTaskStatus(id, TaskStatus.NOT_FEASIBLE);
             return ResponseEntity.ok().build();
         } catch (Exception e) {
             log.error("Failed to reject task: {}", e.getMessage());
@@ -19,7 +19,9 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.dftm.config.DisplayLabels;
 import com.dftm.dto.UpdateUserRequest;
+import com.dftm.dto.UserListView;
 import com.dftm.model.Language;
 import com.dftm.model.Role;
 import com.dftm.model.User;
@@ -39,36 +41,37 @@ public class UserController {
     private final UserService userService;
     private final UserRepository userRepository;
     private final MessageSource messageSource;
+    private final DisplayLabels displayLabels;
 
     private String getMessage(String code) {
         return messageSource.getMessage(code, null, LocaleContextHolder.getLocale());
     }
 
-    private User translateUser(User user) {
-        user.setRoleDisplay(getMessage("role." + user.getRole().name()));
+    private UserListView translateUser(UserListView user) {
+        user.setRoleDisplay(displayLabels.role(user.getRole(), LocaleContextHolder.getLocale()));
         return user;
     }
 
     @GetMapping
     @PreAuthorize("hasAnyAuthority('ROLE_SUPERADMIN','ROLE_ADMIN')")
-    public ResponseEntity<List<User>> getAllUsers() {
+    public ResponseEntity<List<UserListView>> getAllUsers() {
         log.debug("GET request to fetch all users");
         return ResponseEntity.ok(userService.getAllUsers());
     }
 
     @GetMapping("/{userId}")
     @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_SUPERADMIN') or #userId == authentication.principal.id")
-    public ResponseEntity<User> getUserById(@PathVariable String userId) {
+    public ResponseEntity<UserListView> getUserById(@PathVariable String userId) {
         log.debug("GET request to fetch user with ID: {}", userId);
-        User user = userService.getUserById(userId);
+        UserListView user = userService.getUserViewById(userId);
         return ResponseEntity.ok(translateUser(user));
     }
 
     @GetMapping("/language/{language}")
     @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_SUPERADMIN')")
-    public ResponseEntity<List<User>> getUsersByLanguage(@PathVariable Language language) {
+    public ResponseEntity<List<UserListView>> getUsersByLanguage(@PathVariable Language language) {
         log.debug("GET request to fetch users with language: {}", language);
-        List<User> users = userService.getUsersByLanguage(language).stream()
+        List<UserListView> users = userService.getUsersByLanguage(language).stream()
             .map(this::translateUser)
             .collect(Collectors.toList());
         return ResponseEntity.ok(users);
@@ -76,9 +79,9 @@ public class UserController {
 
     @GetMapping("/active")
     @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_SUPERADMIN')")
-    public ResponseEntity<List<User>> getActiveUsers() {
+    public ResponseEntity<List<UserListView>> getActiveUsers() {
         log.debug("GET request to fetch active users");
-        List<User> users = userService.getActiveUsers().stream()
+        List<UserListView> users = userService.getActiveUsers().stream()
             .map(this::translateUser)
             .collect(Collectors.toList());
         return ResponseEntity.ok(users);
@@ -86,9 +89,9 @@ public class UserController {
 
     @GetMapping("/search")
     @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_SUPERADMIN')")
-    public ResponseEntity<List<User>> searchUsers(@RequestParam String query) {
+    public ResponseEntity<List<UserListView>> searchUsers(@RequestParam String query) {
         log.debug("GET request to search users with query: {}", query);
-        List<User> users = userService.searchUsersByName(query).stream()
+        List<UserListView> users = userService.searchUsersByName(query).stream()
             .map(this::translateUser)
             .collect(Collectors.toList());
         return ResponseEntity.ok(users);
@@ -96,9 +99,9 @@ public class UserController {
 
     @GetMapping("/role/{role}")
     @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_SUPERADMIN')")
-    public ResponseEntity<List<User>> getUsersByRole(@PathVariable Role role) {
+    public ResponseEntity<List<UserListView>> getUsersByRole(@PathVariable Role role) {
         log.debug("GET request to fetch users with role: {}", role);
-        List<User> users = userService.getUsersByRole(role).stream()
+        List<UserListView> users = userService.getUsersByRole(role).stream()
             .map(this::translateUser)
             .collect(Collectors.toList());
         return ResponseEntity.ok(users);
@@ -106,24 +109,24 @@ public class UserController {
 
     @PatchMapping("/{userId}")
     @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_SUPERADMIN') or #userId == authentication.principal.id")
-    public ResponseEntity<User> updateUser(
+    public ResponseEntity<UserListView> updateUser(
             @PathVariable String userId,
             @Valid @RequestBody UpdateUserRequest request) {
         log.debug("PATCH request to update user with ID: {}", userId);
         User updatedUser = userService.updateUser(userId, request);
         return ResponseEntity.ok()
             .header("X-Message", getMessage("user.updated"))
-            .body(translateUser(updatedUser));
+            .body(translateUser(UserListView.from(updatedUser)));
     }
 
     @PostMapping
     @PreAuthorize("hasAuthority('ROLE_SUPERADMIN')")
-    public ResponseEntity<User> createUser(@Valid @RequestBody UpdateUserRequest request) {
+    public ResponseEntity<UserListView> createUser(@Valid @RequestBody UpdateUserRequest request) {
         log.debug("POST request to create new user");
         User createdUser = userService.createUser(request);
         return ResponseEntity.ok()
             .header("X-Message", getMessage("user.created"))
-            .body(translateUser(createdUser));
+            .body(translateUser(UserListView.from(createdUser)));
     }
 
     @GetMapping("/me/role")
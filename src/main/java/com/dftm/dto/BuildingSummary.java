@@ -0,0 +1,27 @@
+package com.dftm.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Felanmälningar per byggnad, grupperade på den normaliserade adressen
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BuildingSummary {
+    private String buildingKey;
+    // Adressen som den skrevs i den senaste felanmälan
+    private String address;
+    private long totalReports;
+    private long openReports;
+    // Lägenheter med minst en öppen felanmälan
+    private List<String> openApartments;
+    private LocalDateTime lastReceived;
+}
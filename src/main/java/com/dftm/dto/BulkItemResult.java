@@ -0,0 +1,24 @@
+package com.dftm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkItemResult {
+    private String id;
+    private boolean success;
+    private String error;
+
+    public static BulkItemResult ok(String id) {
+        return BulkItemResult.builder().id(id).success(true).build();
+    }
+
+    public static BulkItemResult failed(String id, String error) {
+        return BulkItemResult.builder().id(id).success(false).error(error).build();
+    }
+}
@@ -0,0 +1,27 @@
+package com.dftm.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOperationResult {
+    private int requested;
+    private int succeeded;
+    private List<BulkItemResult> results;
+
+    public static BulkOperationResult of(List<BulkItemResult> results) {
+        int succeeded = (int) results.stream().filter(BulkItemResult::isSuccess).count();
+        return BulkOperationResult.builder()
+                .requested(results.size())
+                .succeeded(succeeded)
+                .results(results)
+                .build();
+    }
+}
@@ -0,0 +1,16 @@
+package com.dftm.dto;
+
+import java.util.List;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class BulkPendingTaskRequest {
+    private List<String> ids;
+
+    // Används endast vid godkännande
+    private String assignedToUserId;
+    private String dueDate;
+}
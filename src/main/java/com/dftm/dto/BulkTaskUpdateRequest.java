@@ -0,0 +1,24 @@
+package com.dftm.dto;
+
+import java.util.List;
+
+import com.dftm.model.TaskPriority;
+import com.dftm.model.TaskStatus;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Ändringar som ska tillämpas på samma sätt på alla angivna uppgifter.
+ * Fält som är null lämnas orörda.
+ */
+@Data
+@NoArgsConstructor
+public class BulkTaskUpdateRequest {
+    private List<String> taskIds;
+    private TaskStatus status;
+    private TaskPriority priority;
+    private String assignedTo;
+    private Boolean archived;
+    private Boolean approved;
+}
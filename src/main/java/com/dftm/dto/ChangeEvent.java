@@ -0,0 +1,29 @@
+package com.dftm.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * En ändring av en uppgift eller felanmälan som skickas ut i ändringsflödet.
+ * operation är INSERT, UPDATE, REPLACE eller DELETE; allt utom DELETE kan läggas in
+ * eller ersättas hos klienten. document är null vid DELETE och när ändringen
+ * gjordes med updateMulti, då får klienten hämta dokumentet själv.
+ * sequence räknas från processens start och är bara jämförbart inom samma epoch.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeEvent {
+    private String epoch;
+    private long sequence;
+    private String collection;
+    private String operation;
+    private String documentId;
+    private Object document;
+    private LocalDateTime timestamp;
+}
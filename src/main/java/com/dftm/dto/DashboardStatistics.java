@@ -0,0 +1,23 @@
+package com.dftm.dto;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardStatistics {
+    private long totalTasks;
+    private long overdueTasks;
+    private Map<String, Long> tasksByStatus;
+    private Map<String, Long> tasksByPriority;
+    private Map<String, Long> tasksByAssignee;
+    private Map<String, Long> pendingTasksByStatus;
+    private LocalDateTime generatedAt;
+}
@@ -0,0 +1,23 @@
+package com.dftm.dto;
+
+import com.dftm.service.parser.ParsedFaultReport;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Ett arkiverat mejl tolkat med dagens parser, för att jämföra med den sparade felanmälan
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReparsedEmail {
+    private String archiveId;
+    private String pendingTaskId;
+    private String source;
+    private ParsedFaultReport parsed;
+    private String error;
+}
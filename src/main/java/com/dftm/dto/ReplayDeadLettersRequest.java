@@ -0,0 +1,14 @@
+package com.dftm.dto;
+
+import java.util.List;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class ReplayDeadLettersRequest {
+    // Tom eller saknad lista spelar upp alla som fortfarande har status FAILED
+    private List<String> ids;
+    private Integer parallelism;
+}
@@ -0,0 +1,23 @@
+package com.dftm.dto;
+
+import com.dftm.model.Language;
+import com.dftm.model.SearchSourceType;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchHit {
+    private SearchSourceType sourceType;
+    private String sourceId;
+    private String taskId;
+    private Language language;
+    private String title;
+    private String snippet;
+    private float score;
+}
@@ -0,0 +1,25 @@
+package com.dftm.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Ändringar i en uppgiftslista sedan en viss tidpunkt. Klienten lägger in eller
+ * ersätter changed, tar bort removedIds och skickar serverTime som nästa since.
+ * Om resyncRequired är satt räcker inte historiken och hela listan måste hämtas om.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskDelta {
+    private List<TaskSummaryView> changed;
+    private List<String> removedIds;
+    private LocalDateTime serverTime;
+    private boolean resyncRequired;
+}
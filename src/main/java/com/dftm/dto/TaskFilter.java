@@ -0,0 +1,41 @@
+package com.dftm.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import com.dftm.model.TaskPriority;
+import com.dftm.model.TaskStatus;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Filter för sökning bland uppgifter. Alla fält är valfria och kombineras
+ * med AND, listor matchar något av värdena.
+ */
+@Data
+@NoArgsConstructor
+public class TaskFilter {
+    private List<TaskStatus> status;
+    private List<TaskPriority> priority;
+    private String assignedTo;
+    private String assigner;
+    private Boolean archived = false;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime dueFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime dueTo;
+
+    // Fritext i titel och beskrivning
+    private String q;
+
+    private String sort;
+    private String direction = "asc";
+
+    private Integer page;
+    private Integer size;
+}
@@ -0,0 +1,49 @@
+package com.dftm.dto;
+
+import java.time.LocalDateTime;
+
+import com.dftm.model.Language;
+import com.dftm.model.TaskPriority;
+import com.dftm.model.TaskStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Läsmodell för uppgiftslistor. Innehåller bara de fält som listvyerna visar
+ * och fylls via fältprojektion i TaskRepository, så översättningskartor och
+ * kommentarslistor varken läses från MongoDB eller serialiseras.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskSummaryView {
+    private String id;
+    private String title;
+    private String description;
+    private TaskStatus status;
+    private String statusDisplay;
+    private TaskPriority priority;
+    private String priorityDisplay;
+    private String assignedTo;
+    private String assigner;
+    private String reporter;
+    private LocalDateTime dueDate;
+    private LocalDateTime completedDate;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private boolean archived;
+    private boolean approved;
+
+    // Används endast för att slå upp översättningar på serversidan
+    @JsonIgnore
+    private Language originalLanguage;
+    @JsonIgnore
+    private String titleTranslationId;
+    @JsonIgnore
+    private String descriptionTranslationId;
+}
@@ -0,0 +1,48 @@
+package com.dftm.dto;
+
+import com.dftm.model.Language;
+import com.dftm.model.Role;
+import com.dftm.model.User;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Läsmodell för användare. Fylls via fältprojektion i UserRepository och
+ * exponerar aldrig lösenordshash eller behörighetsobjekt.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserListView {
+    private String id;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private String phoneNumber;
+    private Role role;
+    private String roleDisplay;
+    private Language preferredLanguage;
+    private boolean active;
+    private String createdAt;
+    private String updatedAt;
+
+    public static UserListView from(User user) {
+        return UserListView.builder()
+                .id(user.getId())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .email(user.getEmail())
+                .phoneNumber(user.getPhoneNumber())
+                .role(user.getRole())
+                .roleDisplay(user.getRoleDisplay())
+                .preferredLanguage(user.getPreferredLanguage())
+                .active(user.isActive())
+                .createdAt(user.getCreatedAt())
+                .updatedAt(user.getUpdatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,44 @@
+package com.dftm.model;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Originalmejlet bakom en felanmälan, gzip-komprimerat i RFC822-format.
+ * Arkivet skrivs bara till, poster ändras eller tas aldrig bort. Ordningen
+ * på _id (ObjectId) är inläsningsordningen, som sekventiell läsning följer.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "emailArchive")
+public class ArchivedEmail {
+    @Id
+    private String id;
+
+    private String source;
+    private String messageId;
+
+    // Felanmälan som mejlet blev, eller slogs ihop med
+    @Indexed
+    private String pendingTaskId;
+    // processed eller merged
+    private String result;
+    private LocalDateTime archivedAt;
+
+    // Hämtas separat via /raw, ska inte följa med i listningar
+    @JsonIgnore
+    private byte[] rawMessage;
+    private int rawSize;
+}
@@ -0,0 +1,60 @@
+package com.dftm.model;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Ett mejl som inte gick att läsa in. Originalet sparas gzip-komprimerat i RFC822-format
+ * så att det kan spelas upp igen när felet är rättat, eller användas som testkorpus.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "emailDeadLetters")
+public class EmailDeadLetter {
+    public static final String STATUS_FAILED = "FAILED";
+    // Tas av en uppspelning just nu; blir REPLAYED eller FAILED igen när den är klar
+    public static final String STATUS_REPLAYING = "REPLAYING";
+    public static final String STATUS_REPLAYED = "REPLAYED";
+    // Originalet gick inte att spara, bara uppgifterna om mejlet finns kvar och det kan inte spelas upp
+    public static final String STATUS_NOT_STORED = "NOT_STORED";
+
+    @Id
+    private String id;
+
+    // Brevlådan (email.ingest.sources) som mejlet kom från
+    private String source;
+    private String messageId;
+    private String subject;
+    private String from;
+    private LocalDateTime sentAt;
+
+    @Indexed
+    private String status;
+    private LocalDateTime failedAt;
+    private String errorType;
+    private String error;
+    private int attempts;
+    // Varför originalet inte kunde sparas, bara för NOT_STORED
+    private String storeError;
+
+    private LocalDateTime lastReplayAt;
+    // Utfallet av den senaste lyckade uppspelningen, t.ex. processed eller merged
+    private String replayResult;
+
+    // Hämtas separat via /raw, ska inte följa med i listningar
+    @JsonIgnore
+    private byte[] rawMessage;
+    private int rawSize;
+}
@@ -1,17 +1,20 @@
 package com.dftm.model;
 
 public enum Language {
-    SV("sv", "Swedish"),
-    EN("en", "English"),
-    PL("pl", "Polish"),
-    UK("uk", "Ukrainian");
+    SV("sv", "Swedish", "swedish"),
+    EN("en", "English", "english"),
+    PL("pl", "Polish", "none"),
+    UK("uk", "Ukrainian", "none");
 
     private final String code;
     private final String displayName;
+    // Språknamn för MongoDB:s textindex, som saknar stemming för polska och ukrainska
+    private final String textSearchLanguage;
 
-    Language(String code, String displayName) {
+    Language(String code, String displayName, String textSearchLanguage) {
         this.code = code;
         this.displayName = displayName;
+        this.textSearchLanguage = textSearchLanguage;
     }
 
     public String getCode() {
@@ -21,4 +24,8 @@ public enum Language {
     public String getDisplayName() {
         return displayName;
     }
+
+    public String getTextSearchLanguage() {
+        return textSearchLanguage;
+    }
 } 
\ No newline at end of file
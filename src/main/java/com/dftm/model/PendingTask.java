@@ -1,10 +1,14 @@
 package com.dftm.model;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.AllArgsConstructor;
@@ -17,15 +21,29 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "pendingTasks")
+@CompoundIndex(name = "fingerprint_received", def = "{'fingerprint': 1, 'received': -1}")
+@CompoundIndex(name = "building_status_received", def = "{'buildingKey': 1, 'status': 1, 'received': -1}")
 public class PendingTask {
     @Id
     private String id;
+
+    // Skyddar godkännandet i PendingTaskService och PATCH /api/v1/pending-tasks/{id},
+    // som båda sparar om hela felanmälan. Sammanslagning av dubbletter och statusändringar
+    // går via findAndModify och räknar upp versionen i samma uppdatering.
+    @Version
+    private Long version;
     
     private String name;
     private String email;
     private String phone;
     private String address;
     private String apartment;
+    
+    // Normaliserad adress och lägenhet ("storgatan 5b", "1203"), sätts vid varje sparning
+    private String buildingKey;
+    private String apartmentKey;
+    // Versionen av normaliseringen som nycklarna och fingeravtrycket räknades fram med
+    private Integer addressKeyVersion;
     private String description;
     
     // Användarfält för tilldelning
@@ -37,9 +55,29 @@ public class PendingTask {
     @Builder.Default
     private Map<Language, String> descriptionTranslations = new HashMap<>();
     
+    // Prioritet bedömd från beskrivningen vid inläsning, följer med till uppgiften
+    private TaskPriority priority;
+    
     // Status kan vara "APPROVED" eller "REJECTED"
     private String status;
     
     // Datum då felanmälan mottogs
     private LocalDateTime received;
+    
+    // Brevlådan (email.ingest.sources) som felanmälan lästes från
+    @Indexed
+    private String source;
+    
+    // Message-ID från mejlet. Unikt, så att samma mejl aldrig blir två uppgifter
+    @Indexed(unique = true, sparse = true)
+    private String messageId;
+    
+    // Hash av namn, adress, lägenhet och normaliserad beskrivning, hittar dubbletter
+    private String fingerprint;
+    
+    // Dubbletter som slagits ihop med den här felanmälan
+    @Indexed
+    private List<String> mergedMessageIds;
+    private int duplicateCount;
+    private LocalDateTime lastDuplicateAt;
 } 
\ No newline at end of file
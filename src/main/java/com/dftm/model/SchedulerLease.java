@@ -0,0 +1,28 @@
+package com.dftm.model;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Lås med utgångstid för schemalagda jobb som bara får köras på en instans åt gången.
+ * Den instans som äger låset förnyar det löpande; slutar den förnya tar en annan över
+ * när lockedUntil har passerats.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "schedulerLeases")
+public class SchedulerLease {
+    @Id
+    private String name;
+
+    private String owner;
+    private Instant acquiredAt;
+    private Instant lockedUntil;
+}
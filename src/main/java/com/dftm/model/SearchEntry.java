@@ -0,0 +1,48 @@
+package com.dftm.model;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.TextIndexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.TextScore;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * En sökbar text för en uppgift, felanmälan eller kommentar på ett visst språk.
+ * Varje källa har en post per språk så att textindexet kan använda rätt
+ * stemming för varje översättning via searchLanguage.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "searchEntries")
+@CompoundIndex(name = "source", def = "{'sourceType': 1, 'sourceId': 1}")
+public class SearchEntry {
+    @Id
+    private String id;
+    private SearchSourceType sourceType;
+    private String sourceId;
+    private String taskId;
+    private Language entryLanguage;
+
+    @org.springframework.data.mongodb.core.mapping.Language
+    private String searchLanguage;
+
+    @TextIndexed(weight = 3)
+    private String title;
+
+    @TextIndexed
+    private String text;
+
+    private LocalDateTime indexedAt;
+
+    @TextScore
+    private Float score;
+}
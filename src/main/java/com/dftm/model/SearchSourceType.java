@@ -0,0 +1,7 @@
+package com.dftm.model;
+
+public enum SearchSourceType {
+    TASK,
+    PENDING_TASK,
+    COMMENT
+}
@@ -6,6 +6,11 @@ import java.util.Map;
 import java.util.HashMap;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.AllArgsConstructor;
@@ -19,16 +24,29 @@ import jakarta.validation.constraints.NotNull;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Document(collection = "tasks")
+@Document(collection = "tasks", language = "none")
+@CompoundIndexes({
+    @CompoundIndex(name = "archived_assignedTo_dueDate", def = "{'archived': 1, 'assignedTo': 1, 'dueDate': 1}"),
+    @CompoundIndex(name = "archived_status_dueDate", def = "{'archived': 1, 'status': 1, 'dueDate': 1}"),
+    @CompoundIndex(name = "archived_priority_dueDate", def = "{'archived': 1, 'priority': 1, 'dueDate': 1}")
+})
 public class Task {
     @Id
     private String id;
 
+    // Optimistisk låsning. TaskService.updateTask läser, ändrar och sparar hela dokumentet;
+    // fältvisa uppdateringar ($set) räknar upp versionen själva så att en sådan sparning
+    // som bygger på en äldre läsning avvisas med 409
+    @Version
+    private Long version;
+
     @NotBlank(message = "Title is required")
+    @TextIndexed(weight = 3)
     private String title;
     private String titleTranslationId;
 
     @NotBlank(message = "Description is required")
+    @TextIndexed
     private String description;
     private String descriptionTranslationId;
 
@@ -51,6 +69,7 @@ public class Task {
     private LocalDateTime completedDate;
 
     private LocalDateTime createdAt;
+    @Indexed
     private LocalDateTime updatedAt;
 
     @Builder.Default
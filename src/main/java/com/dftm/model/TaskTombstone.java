@@ -0,0 +1,29 @@
+package com.dftm.model;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Spår efter en borttagen uppgift så att klienter som synkar med ?since=
+ * får veta att den ska tas bort. Rensas automatiskt av ett TTL-index.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "taskTombstones")
+public class TaskTombstone {
+    public static final String RETENTION = "30d";
+
+    @Id
+    private String taskId;
+
+    @Indexed(expireAfter = RETENTION)
+    private LocalDateTime deletedAt;
+}
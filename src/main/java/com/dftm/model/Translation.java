@@ -5,6 +5,7 @@ import java.util.Map;
 import java.util.HashMap;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.AllArgsConstructor;
@@ -25,5 +26,6 @@ public class Translation {
     @Builder.Default
     private Map<Language, String> translations = new HashMap<>();
     private LocalDateTime createdAt;
+    @Indexed
     private LocalDateTime updatedAt;
 } 
\ No newline at end of file
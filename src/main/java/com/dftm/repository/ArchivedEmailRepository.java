@@ -0,0 +1,16 @@
+package com.dftm.repository;
+
+import java.util.List;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.dftm.model.ArchivedEmail;
+
+@Repository
+public interface ArchivedEmailRepository extends MongoRepository<ArchivedEmail, String> {
+    // Utan själva mejlet, det kan vara stort
+    @Query(value = "{ 'pendingTaskId': ?0 }", fields = "{ 'rawMessage': 0 }", sort = "{ '_id': 1 }")
+    List<ArchivedEmail> findSummariesByPendingTaskId(String pendingTaskId);
+}
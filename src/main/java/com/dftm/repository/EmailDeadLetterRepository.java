@@ -0,0 +1,19 @@
+package com.dftm.repository;
+
+import java.util.List;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.dftm.model.EmailDeadLetter;
+
+@Repository
+public interface EmailDeadLetterRepository extends MongoRepository<EmailDeadLetter, String> {
+    // Utan själva mejlet, det kan vara stort
+    @Query(value = "{ 'status': ?0 }", fields = "{ 'rawMessage': 0 }", sort = "{ 'failedAt': -1 }")
+    List<EmailDeadLetter> findSummariesByStatus(String status);
+
+    @Query(value = "{}", fields = "{ 'rawMessage': 0 }", sort = "{ 'failedAt': -1 }")
+    List<EmailDeadLetter> findAllSummaries();
+}
@@ -1,5 +1,6 @@
 package com.dftm.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
@@ -11,5 +12,6 @@ import com.dftm.model.PendingTask;
 public interface PendingTaskRepository extends MongoRepository<PendingTask, String> {
     List<PendingTask> findByStatus(String status);
     List<PendingTask> findByEmailContaining(String email);
-    List<PendingTask> findByAddressContaining(String address);
+    List<PendingTask> findByBuildingKeyOrderByReceivedDesc(String buildingKey);
+    List<PendingTask> findByBuildingKeyAndStatusNotInOrderByReceivedDesc(String buildingKey, Collection<String> statuses);
 } 
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.dftm.repository;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.dftm.model.Comment;
+
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface ReactiveCommentRepository extends ReactiveMongoRepository<Comment, String> {
+    Flux<Comment> findByTaskId(String taskId);
+}
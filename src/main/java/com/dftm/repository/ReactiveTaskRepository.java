@@ -0,0 +1,26 @@
+package com.dftm.repository;
+
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.dftm.dto.TaskSummaryView;
+import com.dftm.model.Task;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Icke-blockerande motsvarighet till TaskRepository för de strömmande listorna
+ */
+@Repository
+public interface ReactiveTaskRepository extends ReactiveMongoRepository<Task, String> {
+
+    @Query(value = "{}", fields = TaskRepository.SUMMARY_FIELDS)
+    Flux<TaskSummaryView> findAllSummaries();
+
+    @Query(value = "{ 'archived': ?0 }", fields = TaskRepository.SUMMARY_FIELDS)
+    Flux<TaskSummaryView> findSummariesByArchived(boolean archived);
+
+    @Query(value = "{ 'archived': ?0, 'assignedTo': ?1 }", fields = TaskRepository.SUMMARY_FIELDS)
+    Flux<TaskSummaryView> findSummariesByArchivedAndAssignedTo(boolean archived, String assignedTo);
+}
@@ -0,0 +1,10 @@
+package com.dftm.repository;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.dftm.model.Translation;
+
+@Repository
+public interface ReactiveTranslationRepository extends ReactiveMongoRepository<Translation, String> {
+}
@@ -0,0 +1,13 @@
+package com.dftm.repository;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.dftm.model.SearchEntry;
+import com.dftm.model.SearchSourceType;
+
+@Repository
+public interface SearchEntryRepository extends MongoRepository<SearchEntry, String> {
+    void deleteBySourceTypeAndSourceId(SearchSourceType sourceType, String sourceId);
+    void deleteBySourceTypeAndTaskId(SearchSourceType sourceType, String taskId);
+}
@@ -3,16 +3,36 @@ package com.dftm.repository;
 import java.util.List;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import com.dftm.dto.TaskSummaryView;
 import com.dftm.model.Task;
 import com.dftm.model.TaskStatus;
 
 @Repository
-public interface TaskRepository extends MongoRepository<Task, String> {
+public interface TaskRepository extends MongoRepository<Task, String>, TaskRepositoryCustom {
+    // Fält som läses för TaskSummaryView, översättningskartor och kommentarer utelämnas
+    String SUMMARY_FIELDS = "{ 'title': 1, 'description': 1, 'status': 1, 'priority': 1, "
+            + "'assignedTo': 1, 'assigner': 1, 'reporter': 1, 'dueDate': 1, 'completedDate': 1, "
+            + "'createdAt': 1, 'updatedAt': 1, 'archived': 1, 'approved': 1, 'originalLanguage': 1, "
+            + "'titleTranslationId': 1, 'descriptionTranslationId': 1 }";
+
     List<Task> findByArchived(boolean archived);
     List<Task> findByAssignedTo(String assignedTo);
     List<Task> findByAssigner(String assigner);
     List<Task> findByStatus(TaskStatus status);
     List<Task> findByArchivedAndAssignedTo(boolean archived, String assignedTo);
-} 
\ No newline at end of file
+
+    @Query(value = "{}", fields = SUMMARY_FIELDS)
+    List<TaskSummaryView> findAllSummaries();
+
+    @Query(value = "{ 'archived': ?0 }", fields = SUMMARY_FIELDS)
+    List<TaskSummaryView> findSummariesByArchived(boolean archived);
+
+    @Query(value = "{ 'archived': ?0, 'assignedTo': ?1 }", fields = SUMMARY_FIELDS)
+    List<TaskSummaryView> findSummariesByArchivedAndAssignedTo(boolean archived, String assignedTo);
+
+    @Query(value = "{ 'status': ?0 }", fields = SUMMARY_FIELDS)
+    List<TaskSummaryView> findSummariesByStatus(TaskStatus status);
+}
@@ -0,0 +1,15 @@
+package com.dftm.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import com.dftm.dto.TaskFilter;
+import com.dftm.dto.TaskSummaryView;
+
+public interface TaskRepositoryCustom {
+    List<TaskSummaryView> findSummaries(TaskFilter filter);
+    List<TaskSummaryView> findSummariesUpdatedAfter(Criteria scope, LocalDateTime since);
+    List<String> findIdsUpdatedAfter(Criteria scope, LocalDateTime since);
+}
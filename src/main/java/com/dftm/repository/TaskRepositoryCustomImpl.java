@@ -0,0 +1,107 @@
+package com.dftm.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.util.StringUtils;
+
+import com.dftm.dto.TaskFilter;
+import com.dftm.dto.TaskSummaryView;
+import com.dftm.model.Task;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<TaskSummaryView> findSummaries(TaskFilter filter) {
+        Query query = createQuery(filter);
+
+        if (filter.getArchived() != null) {
+            query.addCriteria(Criteria.where("archived").is(filter.getArchived()));
+        }
+        if (filter.getStatus() != null && !filter.getStatus().isEmpty()) {
+            query.addCriteria(Criteria.where("status").in(filter.getStatus()));
+        }
+        if (filter.getPriority() != null && !filter.getPriority().isEmpty()) {
+            query.addCriteria(Criteria.where("priority").in(filter.getPriority()));
+        }
+        if (StringUtils.hasText(filter.getAssignedTo())) {
+            query.addCriteria(Criteria.where("assignedTo").is(filter.getAssignedTo()));
+        }
+        if (StringUtils.hasText(filter.getAssigner())) {
+            query.addCriteria(Criteria.where("assigner").is(filter.getAssigner()));
+        }
+        if (filter.getDueFrom() != null || filter.getDueTo() != null) {
+            Criteria dueDate = Criteria.where("dueDate");
+            if (filter.getDueFrom() != null) {
+                dueDate.gte(filter.getDueFrom());
+            }
+            if (filter.getDueTo() != null) {
+                dueDate.lte(filter.getDueTo());
+            }
+            query.addCriteria(dueDate);
+        }
+
+        // _id sist så att lika värden alltid kommer i samma ordning och sidorna inte överlappar
+        if (StringUtils.hasText(filter.getSort())) {
+            query.with(Sort.by(Sort.Direction.fromString(filter.getDirection()), filter.getSort()).and(Sort.by("_id")));
+        } else if (filter.getSize() != null) {
+            query.with(Sort.by("_id"));
+        }
+        if (filter.getSize() != null) {
+            int page = filter.getPage() != null ? filter.getPage() : 0;
+            query.skip((long) page * filter.getSize()).limit(filter.getSize());
+        }
+
+        Document.parse(TaskRepository.SUMMARY_FIELDS).keySet().forEach(query.fields()::include);
+
+        return mongoTemplate.query(Task.class)
+                .as(TaskSummaryView.class)
+                .matching(query)
+                .all();
+    }
+
+    @Override
+    public List<TaskSummaryView> findSummariesUpdatedAfter(Criteria scope, LocalDateTime since) {
+        Query query = Query.query(new Criteria().andOperator(Criteria.where("updatedAt").gt(since), scope));
+        Document.parse(TaskRepository.SUMMARY_FIELDS).keySet().forEach(query.fields()::include);
+
+        return mongoTemplate.query(Task.class)
+                .as(TaskSummaryView.class)
+                .matching(query)
+                .all();
+    }
+
+    @Override
+    public List<String> findIdsUpdatedAfter(Criteria scope, LocalDateTime since) {
+        Query query = Query.query(new Criteria().andOperator(Criteria.where("updatedAt").gt(since), scope));
+        query.fields().include("_id");
+
+        return mongoTemplate.find(query, Task.class).stream()
+                .map(Task::getId)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Fritextsökning går via textindexet på titel och beskrivning och
+     * sorteras på relevans om ingen annan sortering har angetts.
+     */
+    private Query createQuery(TaskFilter filter) {
+        if (!StringUtils.hasText(filter.getQ())) {
+            return new Query();
+        }
+        TextQuery textQuery = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(filter.getQ()));
+        return StringUtils.hasText(filter.getSort()) ? textQuery : textQuery.sortByScore();
+    }
+}
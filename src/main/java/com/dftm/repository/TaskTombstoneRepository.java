@@ -0,0 +1,14 @@
+package com.dftm.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.dftm.model.TaskTombstone;
+
+@Repository
+public interface TaskTombstoneRepository extends MongoRepository<TaskTombstone, String> {
+    List<TaskTombstone> findByDeletedAtAfter(LocalDateTime since);
+}
@@ -1,9 +1,12 @@
 package com.dftm.repository;
 
+import java.util.Optional;
+
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 import com.dftm.model.Translation;
 
 @Repository
 public interface TranslationRepository extends MongoRepository<Translation, String> {
+    Optional<Translation> findFirstByOrderByUpdatedAtDesc();
 } 
\ No newline at end of file
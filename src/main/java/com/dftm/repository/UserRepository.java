@@ -4,18 +4,39 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import com.dftm.dto.UserListView;
 import com.dftm.model.Language;
 import com.dftm.model.Role;
 import com.dftm.model.User;
 
 @Repository
 public interface UserRepository extends MongoRepository<User, String> {
+    // Fält som läses för UserListView, lösenordshashen lämnar aldrig databasen
+    String LIST_FIELDS = "{ 'firstName': 1, 'lastName': 1, 'email': 1, 'phoneNumber': 1, 'role': 1, "
+            + "'preferredLanguage': 1, 'active': 1, 'createdAt': 1, 'updatedAt': 1 }";
+
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
-    List<User> findByRole(Role role);
-    List<User> findByPreferredLanguage(Language language);
-    List<User> findByActiveTrue();
-    List<User> findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(String firstName, String lastName);
-} 
\ No newline at end of file
+
+    @Query(value = "{ '_id': ?0 }", fields = LIST_FIELDS)
+    Optional<UserListView> findListViewById(String id);
+
+    @Query(value = "{}", fields = LIST_FIELDS)
+    List<UserListView> findAllListViews();
+
+    @Query(value = "{ 'role': ?0 }", fields = LIST_FIELDS)
+    List<UserListView> findListViewsByRole(Role role);
+
+    @Query(value = "{ 'preferredLanguage': ?0 }", fields = LIST_FIELDS)
+    List<UserListView> findListViewsByPreferredLanguage(Language language);
+
+    @Query(value = "{ 'active': true }", fields = LIST_FIELDS)
+    List<UserListView> findActiveListViews();
+
+    @Query(value = "{ '$or': [ { 'firstName': { '$regex': ?0, '$options': 'i' } }, "
+            + "{ 'lastName': { '$regex': ?0, '$options': 'i' } } ] }", fields = LIST_FIELDS)
+    List<UserListView> findListViewsByNameMatching(String namePattern);
+}
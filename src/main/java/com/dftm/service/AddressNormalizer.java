@@ -0,0 +1,143 @@
+package com.dftm.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Gör om fritextadresser till nycklar som går att jämföra med likhet. "Storg. 5 B, 2 tr",
+ * "STORGATAN 5b" och "storgata 5-B" ger alla byggnadsnyckeln "storgatan 5b". Allt efter
+ * första husnumret (trappor, postnummer, ort) tas bort, liksom lägenhetsangivelser.
+ */
+final class AddressNormalizer {
+    // Räknas upp när nycklarna byggs på ett nytt sätt. Sparade felanmälningar med äldre
+    // version får nycklar och fingeravtryck omräknade av PendingTaskService.backfillBuildingKeys
+    static final int VERSION = 2;
+
+    // "Storg." och "Kungsv." före skiljetecknen tas bort
+    private static final Pattern STREET_SUFFIX_GATAN = Pattern.compile("(\\p{L})g\\.");
+    private static final Pattern STREET_SUFFIX_VAGEN = Pattern.compile("(\\p{L})v\\.");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+    // Husnummer med bokstav som eget ord, "5 b" -> "5b". Bara a-h, polskt "5 m. 3" är lägenhet 3
+    private static final Pattern NUMBER_LETTER = Pattern.compile("(?U)\\b(\\d+) ([a-h])\\b");
+    private static final Pattern DIGIT = Pattern.compile("\\d");
+
+    // Lägenhet skrivet i adressfältet, allt därefter hör inte till byggnaden
+    private static final Set<String> APARTMENT_MARKERS = Set.of(
+        "lgh", "lägenhet", "lägenhetsnummer", "apt", "apartment", "flat",
+        "m", "mieszkanie", "kv", "кв", "квартира");
+    // Ord som inte skiljer byggnader åt
+    private static final Set<String> NOISE = Set.of("ul", "ulica", "вул", "вулиця", "nr", "no", "номер");
+    // Förkortningar som står efter gatunamnet, "Main St". Först i adressen är "St." i stället
+    // Sankt, som i "St. Eriksgatan"
+    private static final Map<String, String> SUFFIX_ABBREVIATIONS = Map.of(
+        "st", "street",
+        "str", "street",
+        "rd", "road",
+        "ave", "avenue");
+    // Förkortningar som står före gatunamnet, "al. Jerozolimskie", "пр. Перемоги"
+    private static final Map<String, String> PREFIX_ABBREVIATIONS = Map.of(
+        "al", "aleja",
+        "os", "osiedle",
+        "пр", "проспект",
+        "просп", "проспект");
+
+    private AddressNormalizer() {
+    }
+
+    /**
+     * Gatunamn och husnummer i kanonisk form, eller null om adressen saknas
+     */
+    static String buildingKey(String address) {
+        List<String> tokens = tokens(streetPart(address));
+        if (tokens.isEmpty()) {
+            return null;
+        }
+        List<String> street = new ArrayList<>();
+        String number = null;
+        for (String token : tokens) {
+            if (DIGIT.matcher(token).find()) {
+                if (number != null) {
+                    break;
+                }
+                number = token;
+                // Engelsk ordning, "12 Main Street": gatunamnet kommer efter numret
+                if (!street.isEmpty()) {
+                    break;
+                }
+                continue;
+            }
+            if (APARTMENT_MARKERS.contains(token)) {
+                break;
+            }
+            if (!NOISE.contains(token)) {
+                street.add(expand(token, street.isEmpty()));
+            }
+        }
+        if (number != null) {
+            street.add(number);
+        }
+        return street.isEmpty() ? null : String.join(" ", street);
+    }
+
+    /**
+     * Lägenhetsnumret utan prefix som "Lgh" eller "Mieszkanie", eller null om det saknas
+     */
+    static String apartmentKey(String apartment) {
+        StringBuilder key = new StringBuilder();
+        for (String token : tokens(apartment)) {
+            if (!APARTMENT_MARKERS.contains(token) && !NOISE.contains(token)) {
+                key.append(token);
+            }
+        }
+        return key.isEmpty() ? null : key.toString();
+    }
+
+    // Första kommaseparerade delen med ett nummer i, "Storgatan 5" ur "Storgatan 5, 2 tr".
+    // Delar som börjar med en lägenhetsangivelse hoppas över, "Lgh 1203, Storgatan 5"
+    private static String streetPart(String address) {
+        if (address == null) {
+            return null;
+        }
+        String[] parts = address.split(",");
+        for (String part : parts) {
+            if (DIGIT.matcher(part).find() && !startsWithApartmentMarker(part)) {
+                return part;
+            }
+        }
+        return parts.length > 0 ? parts[0] : address;
+    }
+
+    private static boolean startsWithApartmentMarker(String part) {
+        List<String> tokens = tokens(part);
+        return !tokens.isEmpty() && APARTMENT_MARKERS.contains(tokens.get(0));
+    }
+
+    private static List<String> tokens(String value) {
+        if (value == null || value.isBlank()) {
+            return List.of();
+        }
+        String normalized = Normalizer.normalize(value, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        normalized = STREET_SUFFIX_GATAN.matcher(normalized).replaceAll("$1gatan ");
+        normalized = STREET_SUFFIX_VAGEN.matcher(normalized).replaceAll("$1vägen ");
+        normalized = NON_ALPHANUMERIC.matcher(normalized).replaceAll(" ").trim();
+        normalized = NUMBER_LETTER.matcher(normalized).replaceAll("$1$2");
+        return normalized.isEmpty() ? List.of() : List.of(normalized.split(" "));
+    }
+
+    private static String expand(String token, boolean first) {
+        String expanded = (first ? PREFIX_ABBREVIATIONS : SUFFIX_ABBREVIATIONS).get(token);
+        if (expanded != null) {
+            return expanded;
+        }
+        // "Storgata" och "Storgatan", "Kungsväg" och "Kungsvägen" är samma gata
+        if (token.endsWith("gata") || token.endsWith("väg")) {
+            return token + (token.endsWith("gata") ? "n" : "en");
+        }
+        return token;
+    }
+}
@@ -0,0 +1,30 @@
+package com.dftm.service;
+
+import java.util.Objects;
+
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+import org.springframework.stereotype.Component;
+
+import com.dftm.model.PendingTask;
+
+/**
+ * Räknar om byggnads- och lägenhetsnyckeln varje gång en felanmälan sparas, så att de
+ * följer adressen oavsett om den kom från mejl, formuläret eller en manuell ändring.
+ * Fingeravtrycket räknas bara om när det togs fram med en äldre normalisering.
+ */
+@Component
+public class BuildingKeyListener extends AbstractMongoEventListener<PendingTask> {
+
+    @Override
+    public void onBeforeConvert(BeforeConvertEvent<PendingTask> event) {
+        PendingTask pendingTask = event.getSource();
+        pendingTask.setBuildingKey(AddressNormalizer.buildingKey(pendingTask.getAddress()));
+        pendingTask.setApartmentKey(AddressNormalizer.apartmentKey(pendingTask.getApartment()));
+        if (pendingTask.getFingerprint() != null && !Objects.equals(pendingTask.getAddressKeyVersion(), AddressNormalizer.VERSION)) {
+            pendingTask.setFingerprint(FaultReportFingerprint.of(pendingTask.getName(), pendingTask.getAddress(),
+                pendingTask.getApartment(), pendingTask.getDescription()));
+        }
+        pendingTask.setAddressKeyVersion(AddressNormalizer.VERSION);
+    }
+}
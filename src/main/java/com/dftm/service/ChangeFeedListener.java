@@ -0,0 +1,54 @@
+package com.dftm.service;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+import com.dftm.model.PendingTask;
+import com.dftm.model.Task;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Publicerar sparade och borttagna uppgifter och felanmälningar till ändringsflödet
+ * när databasen saknar change streams
+ */
+@Component
+@RequiredArgsConstructor
+public class ChangeFeedListener extends AbstractMongoEventListener<Object> {
+    private final ChangeFeedService changeFeedService;
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Object> event) {
+        if (event.getSource() instanceof Task task) {
+            changeFeedService.publishLocal(ChangeFeedService.TASKS, "UPDATE", task.getId(), task);
+        } else if (event.getSource() instanceof PendingTask pendingTask) {
+            changeFeedService.publishLocal(ChangeFeedService.PENDING_TASKS, "UPDATE", pendingTask.getId(), pendingTask);
+        }
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Object> event) {
+        Class<?> type = event.getType();
+        String id = idOf(event.getSource());
+        if (id == null) {
+            return;
+        }
+        if (type == Task.class) {
+            changeFeedService.publishLocal(ChangeFeedService.TASKS, "DELETE", id, null);
+        } else if (type == PendingTask.class) {
+            changeFeedService.publishLocal(ChangeFeedService.PENDING_TASKS, "DELETE", id, null);
+        }
+    }
+
+    private String idOf(Document query) {
+        Object id = query.get("_id");
+        if (id instanceof ObjectId objectId) {
+            return objectId.toHexString();
+        }
+        return id instanceof String value ? value : null;
+    }
+}
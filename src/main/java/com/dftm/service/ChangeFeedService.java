@@ -0,0 +1,275 @@
+package com.dftm.service;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.dftm.dto.ChangeEvent;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Håller de anslutna SSE-klienterna och en ringbuffert med de senaste ändringarna.
+ * Klienter som återansluter med Last-Event-ID får de missade ändringarna,
+ * eller ett reset-event om bufferten inte längre räcker och allt måste hämtas om.
+ * Event-id:t är "epok:sekvensnummer" där epoken är unik för processen. Ett id från en
+ * annan epok, efter en omstart eller från en annan instans, ger alltid reset eftersom
+ * sekvensnumren inte går att jämföra.
+ *
+ * Ändringarna kommer från MongoDB change streams när databasen är ett replica set,
+ * annars publiceras de direkt från applikationen.
+ *
+ * publish anropas synkront från sparningar, så den skriver aldrig själv till klienterna.
+ * Varje klient har en begränsad kö som töms av en egen sändartråd; en klient vars kö
+ * blir full kopplas bort och får återansluta med Last-Event-ID.
+ *
+ * Felanmälningar innehåller hyresgästens namn, e-post, telefon och adress och skickas
+ * därför bara i sin helhet till administratörer, andra får enbart id:t.
+ */
+@Service
+@Slf4j
+public class ChangeFeedService {
+    public static final String TASKS = "tasks";
+    public static final String PENDING_TASKS = "pendingTasks";
+
+    private final Deque<ChangeEvent> buffer = new ArrayDeque<>();
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    // Skyddar sekvensnumret, bufferten och köernas ordning. Inga skrivningar till klienter sker under låset.
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ExecutorService sender = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "change-feed-sender");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final int bufferSize;
+    private final long emitterTimeoutMs;
+    private final int subscriberQueueSize;
+    private final String epoch = UUID.randomUUID().toString().substring(0, 8);
+    private long sequence;
+    private volatile boolean changeStreamActive;
+
+    public ChangeFeedService(
+            @Value("${changefeed.buffer-size:1000}") int bufferSize,
+            @Value("${changefeed.emitter-timeout-ms:1800000}") long emitterTimeoutMs,
+            @Value("${changefeed.subscriber-queue-size:256}") int subscriberQueueSize) {
+        this.bufferSize = bufferSize;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.subscriberQueueSize = subscriberQueueSize;
+    }
+
+    /**
+     * Registrerar en ny klient och skickar de ändringar den har missat
+     *
+     * @param lastEventId Event-id:t klienten senast tog emot, eller null vid första anslutning
+     * @param admin Om klienten får se hela felanmälningar
+     */
+    public SseEmitter subscribe(String lastEventId, boolean admin) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, admin, new ArrayBlockingQueue<>(subscriberQueueSize));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+
+        // Replay och registrering sker under samma lås som publish, så att
+        // klienten får ändringarna i ordning utan luckor eller dubbletter
+        lock.lock();
+        try {
+            if (lastEventId != null) {
+                Long resumeFrom = sequenceOf(lastEventId);
+                long oldest = buffer.isEmpty() ? sequence + 1 : buffer.peekFirst().getSequence();
+                if (resumeFrom == null || resumeFrom > sequence || resumeFrom < oldest - 1
+                        || resumeFrom < sequence - subscriberQueueSize) {
+                    // Id från en annan process eller för gammalt för bufferten och kön. Reset-eventet
+                    // bär ett id i den här epoken så att nästa återanslutning kan fortsätta härifrån.
+                    subscriber.queue().offer(SseEmitter.event()
+                            .id(eventId(sequence))
+                            .name("reset")
+                            .data(Map.of("epoch", epoch, "sequence", sequence)));
+                } else {
+                    for (ChangeEvent event : buffer) {
+                        if (event.getSequence() > resumeFrom) {
+                            subscriber.queue().offer(toSse(event, admin));
+                        }
+                    }
+                }
+            }
+            subscribers.add(subscriber);
+        } finally {
+            lock.unlock();
+        }
+        drain(subscriber);
+        log.debug("Change feed subscriber added, {} connected", subscribers.size());
+        return emitter;
+    }
+
+    /**
+     * Publicerar en ändring som lästs från en change stream
+     */
+    public void publish(String collection, String operation, String documentId, Object document) {
+        lock.lock();
+        try {
+            ChangeEvent event = ChangeEvent.builder()
+                    .epoch(epoch)
+                    .sequence(++sequence)
+                    .collection(collection)
+                    .operation(operation)
+                    .documentId(documentId)
+                    .document(document)
+                    .timestamp(LocalDateTime.now())
+                    .build();
+            buffer.addLast(event);
+            while (buffer.size() > bufferSize) {
+                buffer.removeFirst();
+            }
+            SseEmitter.SseEventBuilder full = toSse(event, true);
+            SseEmitter.SseEventBuilder redacted = toSse(event, false);
+            subscribers.forEach(subscriber -> enqueue(subscriber, subscriber.admin() ? full : redacted));
+        } finally {
+            lock.unlock();
+        }
+        subscribers.forEach(this::drain);
+    }
+
+    /**
+     * Publicerar en ändring gjord av applikationen själv. Ignoreras när change streams
+     * är aktiva, eftersom samma ändring då kommer från databasen.
+     */
+    public void publishLocal(String collection, String operation, String documentId, Object document) {
+        if (!changeStreamActive) {
+            publish(collection, operation, documentId, document);
+        }
+    }
+
+    public void publishLocal(String collection, String operation, Collection<String> documentIds) {
+        if (!changeStreamActive) {
+            documentIds.forEach(id -> publish(collection, operation, id, null));
+        }
+    }
+
+    public void setChangeStreamActive(boolean changeStreamActive) {
+        this.changeStreamActive = changeStreamActive;
+    }
+
+    public boolean isChangeStreamActive() {
+        return changeStreamActive;
+    }
+
+    public String getEpoch() {
+        return epoch;
+    }
+
+    public long currentSequence() {
+        lock.lock();
+        try {
+            return sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Håller anslutningen vid liv genom proxys och upptäcker stängda klienter
+    @Scheduled(fixedDelayString = "${changefeed.heartbeat-ms:25000}")
+    public void heartbeat() {
+        SseEmitter.SseEventBuilder heartbeat = SseEmitter.event().comment("heartbeat");
+        for (Subscriber subscriber : subscribers) {
+            // En klient som inte hunnit ikapp behöver ingen heartbeat
+            if (subscriber.queue().isEmpty()) {
+                enqueue(subscriber, heartbeat);
+                drain(subscriber);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+    }
+
+    private void enqueue(Subscriber subscriber, SseEmitter.SseEventBuilder sseEvent) {
+        if (!subscriber.queue().offer(sseEvent)) {
+            // Klienten hänger inte med. Den kopplas bort och hämtar det missade via Last-Event-ID;
+            // complete kan blockera bakom en pågående send och görs därför i sändartråden.
+            if (subscribers.remove(subscriber)) {
+                log.warn("Change feed subscriber fell {} events behind, disconnecting", subscriberQueueSize);
+                sender.execute(subscriber.emitter()::complete);
+            }
+        }
+    }
+
+    // Högst en sändare per klient åt gången, så att ordningen i kön behålls
+    private void drain(Subscriber subscriber) {
+        if (!subscriber.queue().isEmpty() && subscriber.draining().compareAndSet(false, true)) {
+            sender.execute(() -> send(subscriber));
+        }
+    }
+
+    private void send(Subscriber subscriber) {
+        try {
+            SseEmitter.SseEventBuilder sseEvent;
+            while ((sseEvent = subscriber.queue().poll()) != null) {
+                subscriber.emitter().send(sseEvent);
+            }
+        } catch (IOException | IllegalStateException e) {
+            subscribers.remove(subscriber);
+            subscriber.queue().clear();
+            log.debug("Removed disconnected change feed subscriber: {}", e.getMessage());
+        } finally {
+            subscriber.draining().set(false);
+        }
+        // Något kan ha köats mellan sista poll och att flaggan släpptes
+        drain(subscriber);
+    }
+
+    private SseEmitter.SseEventBuilder toSse(ChangeEvent event, boolean admin) {
+        if (!admin && PENDING_TASKS.equals(event.getCollection()) && event.getDocument() != null) {
+            event = event.toBuilder().document(null).build();
+        }
+        return SseEmitter.event()
+                .id(eventId(event.getSequence()))
+                .name("change")
+                .data(event, MediaType.APPLICATION_JSON);
+    }
+
+    private String eventId(long eventSequence) {
+        return epoch + ":" + eventSequence;
+    }
+
+    // Sekvensnumret i ett id från den här processen, annars null
+    private Long sequenceOf(String eventId) {
+        int separator = eventId.lastIndexOf(':');
+        if (separator < 0 || !epoch.equals(eventId.substring(0, separator))) {
+            return null;
+        }
+        try {
+            return Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private record Subscriber(SseEmitter emitter, boolean admin, Queue<SseEmitter.SseEventBuilder> queue,
+            AtomicBoolean draining) {
+        Subscriber(SseEmitter emitter, boolean admin, Queue<SseEmitter.SseEventBuilder> queue) {
+            this(emitter, admin, queue, new AtomicBoolean());
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.dftm.service;
+
+import java.util.List;
+
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import com.dftm.model.PendingTask;
+import com.dftm.model.Task;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Läser ändringar av uppgifter och felanmälningar från en MongoDB change stream
+ * och skickar dem vidare till ChangeFeedService. Kräver replica set; annars
+ * lämnas ChangeFeedService i lokalt läge där applikationen publicerar själv.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ChangeStreamWatcher {
+    private static final long RETRY_DELAY_MS = 5000;
+
+    private final MongoTemplate mongoTemplate;
+    private final ChangeFeedService changeFeedService;
+
+    @Value("${changefeed.change-streams.enabled:true}")
+    private boolean enabled;
+
+    private volatile boolean running;
+    private volatile MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor;
+    private Thread thread;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || !isReplicaSet()) {
+            log.info("Change streams not available, change feed uses in-process events");
+            return;
+        }
+        running = true;
+        changeFeedService.setChangeStreamActive(true);
+        thread = new Thread(this::watch, "change-stream-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("Change feed uses MongoDB change streams");
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (cursor != null) {
+            cursor.close();
+        }
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void watch() {
+        BsonDocument resumeToken = null;
+        while (running) {
+            try {
+                ChangeStreamIterable<Document> stream = mongoTemplate.getDb()
+                        .watch(List.of(Aggregates.match(Filters.in("ns.coll",
+                                ChangeFeedService.TASKS, ChangeFeedService.PENDING_TASKS))))
+                        .fullDocument(FullDocument.UPDATE_LOOKUP);
+                if (resumeToken != null) {
+                    // Fortsätt där vi slutade så att inga ändringar tappas vid avbrott
+                    stream = stream.resumeAfter(resumeToken);
+                }
+                cursor = stream.cursor();
+                while (running) {
+                    ChangeStreamDocument<Document> change = cursor.next();
+                    resumeToken = change.getResumeToken();
+                    handle(change);
+                }
+            } catch (Exception e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Change stream interrupted, retrying in {} ms: {}", RETRY_DELAY_MS, e.getMessage());
+                try {
+                    Thread.sleep(RETRY_DELAY_MS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            } finally {
+                if (cursor != null) {
+                    cursor.close();
+                }
+            }
+        }
+    }
+
+    private void handle(ChangeStreamDocument<Document> change) {
+        if (change.getNamespace() == null || change.getDocumentKey() == null) {
+            // T.ex. drop eller invalidate, inget att skicka till klienterna
+            return;
+        }
+        String collection = change.getNamespace().getCollectionName();
+        String documentId = idOf(change.getDocumentKey().get("_id"));
+        Object document = null;
+        if (change.getFullDocument() != null) {
+            Class<?> type = ChangeFeedService.TASKS.equals(collection) ? Task.class : PendingTask.class;
+            document = mongoTemplate.getConverter().read(type, change.getFullDocument());
+        }
+        changeFeedService.publish(collection, change.getOperationType().name(), documentId, document);
+    }
+
+    private boolean isReplicaSet() {
+        try {
+            Document hello = mongoTemplate.getDb().runCommand(new Document("hello", 1));
+            return hello.containsKey("setName") || "isdbgrid".equals(hello.getString("msg"));
+        } catch (Exception e) {
+            log.debug("Could not determine MongoDB topology: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private String idOf(BsonValue id) {
+        if (id == null) {
+            return null;
+        }
+        return id.isObjectId() ? id.asObjectId().getValue().toHexString() : id.asString().getValue();
+    }
+}
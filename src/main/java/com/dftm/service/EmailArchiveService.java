@@ -0,0 +1,94 @@
+package com.dftm.service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.dftm.dto.ReparsedEmail;
+import com.dftm.exception.BadRequestException;
+import com.dftm.exception.ResourceNotFoundException;
+import com.dftm.model.ArchivedEmail;
+import com.dftm.repository.ArchivedEmailRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Läsning ur arkivet med originalmejl. EmailListener skriver dit vid inläsningen;
+ * härifrån slås mejl upp per felanmälan eller läses sekventiellt, t.ex. för att
+ * tolka om allt efter en uppgradering av parsern.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmailArchiveService {
+    private final ArchivedEmailRepository archivedEmailRepository;
+    private final EmailListener emailListener;
+    private final MongoTemplate mongoTemplate;
+
+    public List<ArchivedEmail> getByPendingTaskId(String pendingTaskId) {
+        return archivedEmailRepository.findSummariesByPendingTaskId(pendingTaskId);
+    }
+
+    public byte[] getRawMessage(String id) throws IOException {
+        ArchivedEmail archivedEmail = archivedEmailRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Archived email not found with id: " + id));
+        return RawMessageCodec.decompress(archivedEmail.getRawMessage());
+    }
+
+    /**
+     * Läser arkivet i inläsningsordning med en cursor, utan att hålla allt i minnet.
+     * Strömmen måste stängas av anroparen.
+     *
+     * @param afterId Fortsätt efter denna post, eller null för att börja från början
+     */
+    public Stream<ArchivedEmail> scan(String afterId) {
+        if (afterId != null && !ObjectId.isValid(afterId)) {
+            throw new BadRequestException("Invalid archive id: " + afterId);
+        }
+        Query query = afterId != null
+            ? Query.query(Criteria.where("_id").gt(new ObjectId(afterId)))
+            : new Query();
+        return mongoTemplate.stream(query.with(Sort.by(Sort.Direction.ASC, "_id")), ArchivedEmail.class);
+    }
+
+    /**
+     * Tolkar om hela arkivet med dagens parser och strömmar resultatet.
+     * Ingenting sparas, resultatet är till för att jämföras med de befintliga felanmälningarna.
+     *
+     * @param profile Parserprofil att tolka med, eller null för varje källas egen
+     */
+    public Flux<ReparsedEmail> reparse(String afterId, String profile) {
+        if (afterId != null && !ObjectId.isValid(afterId)) {
+            throw new BadRequestException("Invalid archive id: " + afterId);
+        }
+        return Flux.fromStream(() -> scan(afterId))
+            .map(archivedEmail -> reparseOne(archivedEmail, profile))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private ReparsedEmail reparseOne(ArchivedEmail archivedEmail, String profile) {
+        ReparsedEmail.ReparsedEmailBuilder result = ReparsedEmail.builder()
+            .archiveId(archivedEmail.getId())
+            .pendingTaskId(archivedEmail.getPendingTaskId())
+            .source(archivedEmail.getSource());
+        try {
+            return result
+                .parsed(emailListener.reparse(RawMessageCodec.toMessage(archivedEmail.getRawMessage()),
+                    archivedEmail.getSource(), profile))
+                .build();
+        } catch (Exception e) {
+            log.warn("Could not reparse archived email {}: {}", archivedEmail.getId(), e.getMessage());
+            return result.error(e.getMessage()).build();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.dftm.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.dftm.dto.BulkItemResult;
+import com.dftm.dto.BulkOperationResult;
+import com.dftm.dto.ReplayDeadLettersRequest;
+import com.dftm.exception.ResourceNotFoundException;
+import com.dftm.model.EmailDeadLetter;
+import com.dftm.repository.EmailDeadLetterRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Mejl som inte gick att läsa in. EmailListener sparar dem; härifrån listas de,
+ * hämtas i originalformat och spelas upp igen parallellt när felet är rättat.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmailDeadLetterService {
+    private static final int DEFAULT_PARALLELISM = 4;
+    private static final int MAX_PARALLELISM = 16;
+    private static final Duration REPLAY_TIMEOUT = Duration.ofMinutes(10);
+
+    private final EmailDeadLetterRepository emailDeadLetterRepository;
+    private final EmailListener emailListener;
+    private final MongoTemplate mongoTemplate;
+
+    public List<EmailDeadLetter> getDeadLetters(String status) {
+        return status == null || status.isEmpty()
+            ? emailDeadLetterRepository.findAllSummaries()
+            : emailDeadLetterRepository.findSummariesByStatus(status);
+    }
+
+    /**
+     * Originalmejlet i RFC822-format, t.ex. för att lägga till i parserns testkorpus
+     */
+    public byte[] getRawMessage(String id) throws IOException {
+        EmailDeadLetter deadLetter = emailDeadLetterRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Dead letter not found with id: " + id));
+        if (deadLetter.getRawMessage() == null) {
+            throw new ResourceNotFoundException("Original message was not stored for dead letter: " + id);
+        }
+        return RawMessageCodec.decompress(deadLetter.getRawMessage());
+    }
+
+    /**
+     * Spelar upp mejlen genom samma inläsning som vid hämtning från brevlådan.
+     * Dubbletter fångas av Message-ID-kontrollen, så en uppspelning kan köras om utan risk.
+     */
+    public BulkOperationResult replay(ReplayDeadLettersRequest request) {
+        List<String> ids = request.getIds() == null || request.getIds().isEmpty()
+            ? emailDeadLetterRepository.findSummariesByStatus(EmailDeadLetter.STATUS_FAILED).stream()
+                .map(EmailDeadLetter::getId)
+                .toList()
+            : request.getIds();
+        int parallelism = Math.max(1, Math.min(
+            request.getParallelism() != null ? request.getParallelism() : DEFAULT_PARALLELISM, MAX_PARALLELISM));
+        log.info("Replaying {} dead letters with parallelism {}", ids.size(), parallelism);
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<CompletableFuture<BulkItemResult>> futures = ids.stream()
+                .map(id -> CompletableFuture.supplyAsync(() -> replayOne(id), executor))
+                .toList();
+            return BulkOperationResult.of(futures.stream().map(CompletableFuture::join).toList());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Tar brevet med findAndModify på status, så att två samtidiga uppspelningar av samma
+     * brev inte båda läser in det. Ett brev som fastnat i REPLAYING, t.ex. efter en omstart
+     * mitt i, kan tas igen efter REPLAY_TIMEOUT.
+     */
+    private BulkItemResult replayOne(String id) {
+        LocalDateTime now = LocalDateTime.now();
+        Query claim = Query.query(Criteria.where("_id").is(id).orOperator(
+            Criteria.where("status").is(EmailDeadLetter.STATUS_FAILED),
+            Criteria.where("status").is(EmailDeadLetter.STATUS_REPLAYING).and("lastReplayAt").lt(now.minus(REPLAY_TIMEOUT))));
+        EmailDeadLetter deadLetter = mongoTemplate.findAndModify(claim, new Update()
+                .set("status", EmailDeadLetter.STATUS_REPLAYING)
+                .set("lastReplayAt", now)
+                .inc("attempts", 1),
+            FindAndModifyOptions.options().returnNew(true), EmailDeadLetter.class);
+        if (deadLetter == null) {
+            return emailDeadLetterRepository.existsById(id)
+                ? BulkItemResult.failed(id, "Dead letter has already been replayed or is being replayed")
+                : BulkItemResult.failed(id, "Dead letter not found");
+        }
+        Query claimed = Query.query(Criteria.where("_id").is(id).and("status").is(EmailDeadLetter.STATUS_REPLAYING));
+        try {
+            String result = emailListener.replay(RawMessageCodec.toMessage(deadLetter.getRawMessage()), deadLetter.getSource());
+            mongoTemplate.updateFirst(claimed, new Update()
+                .set("status", EmailDeadLetter.STATUS_REPLAYED)
+                .set("replayResult", result), EmailDeadLetter.class);
+            return BulkItemResult.ok(id);
+        } catch (Exception e) {
+            log.warn("Replay of dead letter {} failed: {}", id, e.getMessage());
+            mongoTemplate.updateFirst(claimed, new Update()
+                .set("status", EmailDeadLetter.STATUS_FAILED)
+                .set("errorType", e.getClass().getName())
+                .set("error", e.getMessage()), EmailDeadLetter.class);
+            return BulkItemResult.failed(id, e.getMessage());
+        }
+    }
+}
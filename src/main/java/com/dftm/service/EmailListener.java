@@ -2,20 +2,46 @@ package com.dftm.service;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.env.Environment;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import com.dftm.client.GoogleTranslateClient;
+import com.dftm.config.EmailSourceProperties;
 import com.dftm.config.JavaMailProperties;
+import com.dftm.model.ArchivedEmail;
+import com.dftm.model.EmailDeadLetter;
 import com.dftm.model.Language;
 import com.dftm.model.PendingTask;
+import com.dftm.model.TaskPriority;
+import com.dftm.repository.ArchivedEmailRepository;
+import com.dftm.repository.EmailDeadLetterRepository;
 import com.dftm.repository.PendingTaskRepository;
+import com.dftm.service.parser.ParsedFaultReport;
+import com.dftm.service.parser.ParserProfileRegistry;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.mail.Address;
 import jakarta.mail.BodyPart;
 import jakarta.mail.Folder;
@@ -34,14 +60,38 @@ import lombok.extern.slf4j.Slf4j;
 public class EmailListener {
     
     private final JavaMailProperties mailProperties;
+    private final EmailSourceProperties sourceProperties;
     private final PendingTaskRepository pendingTaskRepository;
     private final Environment environment;
     private final TranslationService translationService;
     private final GoogleTranslateClient googleTranslateClient;
+    private final MeterRegistry meterRegistry;
+    private final ObservationRegistry observationRegistry;
+    private final LeaderElectionService leaderElectionService;
+    private final PendingTaskService pendingTaskService;
+    private final ParserProfileRegistry parserProfileRegistry;
+    private final EmailDeadLetterRepository emailDeadLetterRepository;
+    private final ArchivedEmailRepository archivedEmailRepository;
+    private final PriorityInferenceService priorityInferenceService;
+
+    @Value("${email.archive.enabled:true}")
+    private boolean archiveEnabled;
+
+    @Value("${email.dead-letter.max-attempts:3}")
+    private int deadLetterMaxAttempts;
     
+    // Standardregler för den ursprungliga brevlådan när inga källor är konfigurerade
     private static final String TARGET_RECIPIENT = "felanmalan@duggalsfastigheter.se";
     private static final String TARGET_SENDER = "felanmalan@duggalsfastigheter.se";
     private static final String TARGET_REPLY_TO = "mikael.engvall.me@gmail.com";
+    private static final String DEFAULT_SOURCE = "default";
+
+    private List<EmailSourceProperties.Source> sources;
+    private ExecutorService pollExecutor;
+    // Källor som läses just nu; en långsam brevlåda hoppas över tills den är klar i stället för att köas
+    private final Set<String> pollsInFlight = ConcurrentHashMap.newKeySet();
+    // Misslyckade försök att spara ett mejl som dött brev, per källa och Message-ID
+    private final Map<String, Integer> deadLetterSaveFailures = new ConcurrentHashMap<>();
 
     private boolean isDevEnvironment() {
         String[] activeProfiles = environment.getActiveProfiles();
@@ -53,42 +103,133 @@ public class EmailListener {
         return false;
     }
 
-    @Scheduled(fixedDelay = 60000) // Kör varje minut
+    @PostConstruct
+    public void init() {
+        sources = sourceProperties.getSources().isEmpty()
+            ? List.of(defaultSource())
+            : List.copyOf(sourceProperties.getSources());
+        validateSourceNames(sources);
+        AtomicInteger threadNumber = new AtomicInteger();
+        pollExecutor = Executors.newFixedThreadPool(Math.max(1, sourceProperties.getMaxConcurrentPolls()), runnable -> {
+            Thread thread = new Thread(runnable, "email-poll-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.info("Email ingest configured for sources: {}", sources.stream().map(EmailSourceProperties.Source::getName).toList());
+        sources.stream()
+            .filter(source -> !parserProfileRegistry.contains(source.getParserProfile()))
+            .forEach(source -> log.warn("Unknown parser profile {} for source {}, using {}",
+                source.getParserProfile(), source.getName(), ParserProfileRegistry.STANDARD));
+    }
+
+    /**
+     * Namnet styr pollsInFlight, mätvärden och döda brev, så en källa utan namn eller två
+     * med samma namn stoppar uppstarten i stället för att blandas ihop vid körning.
+     */
+    static void validateSourceNames(List<EmailSourceProperties.Source> sources) {
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < sources.size(); i++) {
+            String name = sources.get(i).getName();
+            if (name == null || name.isBlank()) {
+                throw new IllegalStateException("email.ingest.sources[" + i + "].name is required");
+            }
+            if (!names.add(name)) {
+                throw new IllegalStateException("Duplicate email ingest source name: " + name);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pollExecutor.shutdownNow();
+    }
+
+    /**
+     * Källan som används när email.ingest.sources saknas: mail.* och de fasta adresserna.
+     * I utvecklingsmiljön krävs Reply-To i stället för mottagaren.
+     */
+    private EmailSourceProperties.Source defaultSource() {
+        EmailSourceProperties.Source source = new EmailSourceProperties.Source();
+        source.setName(DEFAULT_SOURCE);
+        source.setHost(mailProperties.getHost());
+        source.setPort(mailProperties.getPort());
+        source.setUsername(mailProperties.getUsername());
+        source.setPassword(mailProperties.getPassword());
+        source.setSslTrust(mailProperties.getSslTrust());
+        source.setSenders(List.of(TARGET_SENDER));
+        if (isDevEnvironment()) {
+            log.info("Running in dev environment - will look for emails with Reply-To: {}", TARGET_REPLY_TO);
+            source.setReplyTo(List.of(TARGET_REPLY_TO));
+        } else {
+            source.setRecipients(List.of(TARGET_RECIPIENT));
+        }
+        return source;
+    }
+
+    @Scheduled(fixedDelayString = "${email.poll-interval-ms:60000}") // Kör varje minut som standard
     public void checkEmails() {
+        // Med flera instanser läser bara ledaren inkorgen, annars skapas dubbletter
+        if (!leaderElectionService.tryAcquire(LeaderElectionService.EMAIL_INGEST)) {
+            log.debug("Not the email ingest leader, skipping poll");
+            return;
+        }
         log.info("Checking emails...");
         
+        // Varje brevlåda läses för sig i poolen så att en långsam källa inte fördröjer de andra
+        for (EmailSourceProperties.Source source : sources) {
+            if (!source.isEnabled()) {
+                continue;
+            }
+            if (!pollsInFlight.add(source.getName())) {
+                log.info("Previous poll of {} is still running, skipping", source.getName());
+                continue;
+            }
+            try {
+                pollExecutor.execute(() -> {
+                    try {
+                        pollSource(source);
+                    } finally {
+                        pollsInFlight.remove(source.getName());
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                pollsInFlight.remove(source.getName());
+            }
+        }
+    }
+
+    private void pollSource(EmailSourceProperties.Source source) {
         // Skydda mot null-värden
-        if (mailProperties == null || 
-            mailProperties.getHost() == null || 
-            mailProperties.getUsername() == null || 
-            mailProperties.getPassword() == null) {
-            log.error("Mail properties are not properly configured");
+        if (source.getHost() == null || 
+            source.getUsername() == null || 
+            source.getPassword() == null) {
+            log.error("Mail properties are not properly configured for source {}", source.getName());
             return;
         }
         
-        // I utvecklingsmiljö, logga men fortsätt körningen
-        boolean isDev = isDevEnvironment();
-        if (isDev) {
-            log.info("Running in dev environment - will look for emails with Reply-To: {}", TARGET_REPLY_TO);
-            // Ingen return här - fortsätt köra även i utvecklingsmiljön
-        }
+        Timer.Sample pollSample = Timer.start(meterRegistry);
+        String pollOutcome = "error";
         
         Properties properties = new Properties();
         properties.put("mail.store.protocol", "imaps");
-        properties.put("mail.imaps.host", mailProperties.getHost());
-        properties.put("mail.imaps.port", mailProperties.getPort());
+        properties.put("mail.imaps.host", source.getHost());
+        properties.put("mail.imaps.port", source.getPort());
+        if (source.getSslTrust() != null) {
+            properties.put("mail.imaps.ssl.trust", source.getSslTrust());
+        }
 
         try {
-            Session session = Session.getDefaultInstance(properties);
+            // Inte getDefaultInstance, den återanvänder den första källans inställningar
+            Session session = Session.getInstance(properties);
             
             try (Store store = session.getStore("imaps")) {
                 store.connect(
-                    mailProperties.getHost(),
-                    mailProperties.getUsername(),
-                    mailProperties.getPassword()
+                    source.getHost(),
+                    source.getUsername(),
+                    source.getPassword()
                 );
 
-                Folder inbox = store.getFolder("INBOX");
+                Folder inbox = store.getFolder(source.getFolder());
                 inbox.open(Folder.READ_WRITE);
                 
                 // Hämta alla olästa meddelanden
@@ -99,208 +240,297 @@ public class EmailListener {
                     )
                 );
                 
-                log.info("Found {} unread messages", messages.length);
+                log.info("Found {} unread messages in {}", messages.length, source.getName());
                 
                 for (Message message : messages) {
-                    // Kontrollera avsändare, Reply-To och mottagare
-                    boolean isFromTargetSender = false;
-                    boolean hasTargetReplyTo = false;
-                    boolean isToTargetRecipient = false;
-                    
-                    // Kolla avsändare
-                    Address[] fromAddresses = message.getFrom();
-                    if (fromAddresses != null && fromAddresses.length > 0) {
-                        for (Address address : fromAddresses) {
-                            if (address instanceof InternetAddress) {
-                                String sender = ((InternetAddress) address).getAddress();
-                                log.info("Message from: {}", sender);
-                                if (TARGET_SENDER.equalsIgnoreCase(sender)) {
-                                    isFromTargetSender = true;
-                                    break;
-                                }
-                            }
-                        }
-                    }
-                    
-                    // Kolla Reply-To
-                    Address[] replyToAddresses = message.getReplyTo();
-                    if (replyToAddresses != null && replyToAddresses.length > 0) {
-                        for (Address address : replyToAddresses) {
-                            if (address instanceof InternetAddress) {
-                                String replyTo = ((InternetAddress) address).getAddress();
-                                log.info("Message reply-to: {}", replyTo);
-                                if (TARGET_REPLY_TO.equalsIgnoreCase(replyTo)) {
-                                    hasTargetReplyTo = true;
-                                    break;
-                                }
-                            }
-                        }
-                    }
-                    
-                    // Kolla mottagare
-                    Address[] recipients = message.getRecipients(Message.RecipientType.TO);
-                    if (recipients != null && recipients.length > 0) {
-                        for (Address address : recipients) {
-                            if (address instanceof InternetAddress) {
-                                String recipient = ((InternetAddress) address).getAddress();
-                                log.info("Message to: {}", recipient);
-                                if (TARGET_RECIPIENT.equalsIgnoreCase(recipient)) {
-                                    isToTargetRecipient = true;
-                                    break;
-                                }
-                            }
-                        }
-                    }
-                    
-                    // Fortsätt bara om meddelandet är från rätt avsändare till rätt mottagare och har rätt Reply-To
-                    boolean shouldProcess = false;
-                    
-                    if (isDevEnvironment()) {
-                        // I utvecklingsmiljö, kolla efter Reply-To
-                        if (isFromTargetSender && hasTargetReplyTo) {
-                            shouldProcess = true;
-                            log.info("Processing message with Reply-To: {}", TARGET_REPLY_TO);
-                        }
-                    } else {
-                        // I produktion, tillåt alla mail från rätt avsändare till rätt mottagare
-                        if (isFromTargetSender && isToTargetRecipient) {
-                            shouldProcess = true;
-                            log.info("Processing message in production");
-                        }
-                    }
-                    
-                    if (shouldProcess) {
-                        processEmail(message);
-                    } else {
-                        log.info("Skipping message - not matching criteria");
+                    if (!leaderElectionService.isLeader(LeaderElectionService.EMAIL_INGEST)) {
+                        log.warn("Lost email ingest leadership, leaving remaining messages for the new leader");
+                        break;
                     }
-                    
-                    // Markera meddelandet som läst oavsett
-                    message.setFlag(jakarta.mail.Flags.Flag.SEEN, true);
+                    // Ett spann per meddelande så att långsamma felanmälningar går att spåra
+                    Observation.createNotStarted("dftm.email.message", observationRegistry)
+                        .lowCardinalityKeyValue("source", source.getName())
+                        .observeChecked(() -> checkMessage(message, source));
                 }
                 
                 inbox.close(false);
             }
+            pollOutcome = "success";
         } catch (Exception e) {
-            log.error("Error checking emails: {}", e.getMessage(), e);
+            log.error("Error checking emails in {}: {}", source.getName(), e.getMessage(), e);
+        } finally {
+            pollSample.stop(meterRegistry.timer("dftm.email.poll", "source", source.getName(), "outcome", pollOutcome));
         }
     }
 
-    private void processEmail(Message message) throws Exception {
-        String content = getTextFromMessage(message);
+    /**
+     * Kontrollerar avsändare, Reply-To och mottagare mot källans regler och skapar en PendingTask om meddelandet matchar.
+     * Mejl som inte går att läsa eller spara blir döda brev; går inte heller det lämnas just det mejlet oläst.
+     */
+    private void checkMessage(Message message, EmailSourceProperties.Source source) throws Exception {
+        String result;
+        try {
+            boolean matchesSender = matchesAny(message.getFrom(), source.getSenders(), "from");
+            boolean matchesReplyTo = matchesAny(message.getReplyTo(), source.getReplyTo(), "reply-to");
+            boolean matchesRecipient = matchesAny(message.getRecipients(Message.RecipientType.TO), source.getRecipients(), "to");
+
+            if (matchesSender && matchesReplyTo && matchesRecipient) {
+                log.info("Processing message from source {}", source.getName());
+                result = processEmail(message, source);
+            } else {
+                log.info("Skipping message - not matching criteria");
+                result = "skipped";
+            }
+        } catch (Exception e) {
+            // Sparas för uppspelning; går inte det heller lämnas mejlet oläst till nästa körning,
+            // högst email.dead-letter.max-attempts gånger
+            log.error("Failed to ingest message from {}, storing it as a dead letter: {}",
+                source.getName(), e.getMessage(), e);
+            if (!storeDeadLetter(message, source, e)) {
+                meterRegistry.counter("dftm.email.messages", "source", source.getName(), "result", "unread").increment();
+                return;
+            }
+            result = "dead-letter";
+        }
+        meterRegistry.counter("dftm.email.messages", "source", source.getName(), "result", result).increment();
         
+        // Markera meddelandet som läst oavsett
+        message.setFlag(jakarta.mail.Flags.Flag.SEEN, true);
+    }
+
+    /**
+     * Sparar mejlet som dött brev. Efter email.dead-letter.max-attempts misslyckade försök för
+     * samma mejl sparas bara uppgifterna om det, utan originalet, med status NOT_STORED. Annars
+     * skulle ett mejl som aldrig går att spara, t.ex. ett över Mongos 16 MB, läsas om vid varje körning.
+     *
+     * @return false om inget sparades och mejlet ska lämnas oläst
+     */
+    private boolean storeDeadLetter(Message message, EmailSourceProperties.Source source, Exception error) {
+        String key = source.getName() + ":" + deadLetterKey(message);
+        try {
+            byte[] raw = RawMessageCodec.compress(message);
+            emailDeadLetterRepository.save(deadLetter(message, source, error)
+                .status(EmailDeadLetter.STATUS_FAILED)
+                .rawMessage(raw)
+                .rawSize(raw.length)
+                .build());
+            deadLetterSaveFailures.remove(key);
+            return true;
+        } catch (Exception storeError) {
+            int failures = deadLetterSaveFailures.merge(key, 1, Integer::sum);
+            if (failures < deadLetterMaxAttempts) {
+                log.error("Could not store dead letter from {} (attempt {} of {}), leaving the message unread: {}",
+                    source.getName(), failures, deadLetterMaxAttempts, storeError.getMessage());
+                return false;
+            }
+            try {
+                log.error("Could not store dead letter from {} after {} attempts, recording it without the original: {}",
+                    source.getName(), failures, storeError.getMessage());
+                emailDeadLetterRepository.save(deadLetter(message, source, error)
+                    .status(EmailDeadLetter.STATUS_NOT_STORED)
+                    .storeError(storeError.getClass().getName() + ": " + storeError.getMessage())
+                    .build());
+                deadLetterSaveFailures.remove(key);
+                return true;
+            } catch (RuntimeException recordError) {
+                log.error("Could not record dead letter from {}, leaving the message unread: {}",
+                    source.getName(), recordError.getMessage(), recordError);
+                return false;
+            }
+        }
+    }
+
+    private EmailDeadLetter.EmailDeadLetterBuilder deadLetter(Message message, EmailSourceProperties.Source source,
+            Exception error) {
+        Address[] from = readHeader(message::getFrom);
+        Date sentDate = readHeader(message::getSentDate);
+        return EmailDeadLetter.builder()
+            .source(source.getName())
+            .messageId(readHeader(() -> getMessageId(message)))
+            .subject(readHeader(message::getSubject))
+            .from(from != null && from.length > 0 ? from[0].toString() : null)
+            .sentAt(sentDate != null ? LocalDateTime.ofInstant(sentDate.toInstant(), ZoneId.systemDefault()) : null)
+            .failedAt(LocalDateTime.now())
+            .errorType(error.getClass().getName())
+            .error(error.getMessage());
+    }
+
+    // Message-ID om det finns, annars ämne och datum som är samma vid varje läsning av mejlet
+    private String deadLetterKey(Message message) {
+        String messageId = readHeader(() -> getMessageId(message));
+        return messageId != null ? messageId : readHeader(message::getSubject) + "|" + readHeader(message::getSentDate);
+    }
+
+    private interface HeaderReader<T> {
+        T read() throws MessagingException;
+    }
+
+    // Ett trasigt huvud ska inte hindra att mejlet sparas som dött brev
+    private static <T> T readHeader(HeaderReader<T> reader) {
+        try {
+            return reader.read();
+        } catch (MessagingException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Läser in ett sparat mejl igen, utan avsändarfiltret som det redan har passerat
+     *
+     * @return Utfallet från inläsningen
+     */
+    public String replay(Message message, String sourceName) throws Exception {
+        EmailSourceProperties.Source source = findSource(sourceName);
+        String result = processEmail(message, source);
+        meterRegistry.counter("dftm.email.messages", "source", source.getName(), "result", "replay-" + result).increment();
+        return result;
+    }
+
+    /**
+     * Tolkar ett sparat mejl med dagens parser utan att spara något
+     *
+     * @param profile Parserprofil, eller null för källans egen
+     */
+    public ParsedFaultReport reparse(Message message, String sourceName, String profile) throws Exception {
+        String profileName = profile != null ? profile : findSource(sourceName).getParserProfile();
+        ParsedFaultReport report = parse(message, profileName);
+        return report != null ? report : ParsedFaultReport.builder().profile(profileName).build();
+    }
+
+    /**
+     * Tolkningen av ett mejl, gemensam för inläsning och omtolkning av arkivet så att de ger samma fält
+     *
+     * @return Rapporten, eller null om mejlet saknar textinnehåll
+     */
+    private ParsedFaultReport parse(Message message, String profile) throws Exception {
         // Rensa HTML först
-        content = cleanHtmlContent(content);
-        
-        log.info("\033[0;34m Cleaned content:\n{}\033[0m", content);
-        
-        // Kontrollera om innehållet är tomt
+        String content = cleanHtmlContent(getTextFromMessage(message));
         if (content == null || content.trim().isEmpty()) {
-            log.warn("\033[0;33m Skipping empty email message \033[0m");
-            return;
+            return null;
         }
-        
         log.info("\033[0;34m Raw content length: {} \033[0m", content.length());
-        log.info("\033[0;34m Raw content:\n{}\033[0m", content);
+        log.info("\033[0;34m Cleaned content:\n{}\033[0m", content);
 
-        // Parse email content
-        Map<String, String> extractedFields = new HashMap<>();
-        StringBuilder description = new StringBuilder();
-        boolean isDescription = false;
-        boolean pastSeparator = false;
+        ParsedFaultReport report = parserProfileRegistry.parse(profile, content);
+        if (!report.isStructured()) {
+            // Fritext från hyresgästen själv, avsändaren är då hyresgästen
+            fillFromSender(report, message);
+        }
+        return report;
+    }
 
-        // Dela upp innehållet i rader
-        String[] lines = content.split("\n");
-        boolean foundMeddelande = false;
-        
-        for (String line : lines) {
-            String trimmedLine = line.trim();
-            
-            // Hoppa över tomma rader
-            if (trimmedLine.isEmpty()) {
-                continue;
-            }
-            
-            // Kolla efter separatorn
-            if (trimmedLine.startsWith("---")) {
-                pastSeparator = true;
-                isDescription = false;
-                continue;
-            }
-            
-            // Hoppa över allt efter separatorn
-            if (pastSeparator) {
-                continue;
-            }
-            
-            // Hantera olika fält
-            if (trimmedLine.startsWith("Namn:")) {
-                extractedFields.put("name", trimmedLine.substring("Namn:".length()).trim());
-                isDescription = false;
-            } 
-            else if (trimmedLine.startsWith("E-post:")) {
-                extractedFields.put("email", trimmedLine.substring("E-post:".length()).trim());
-                isDescription = false;
-            } 
-            else if (trimmedLine.startsWith("Telefonnummer:")) {
-                extractedFields.put("phone", trimmedLine.substring("Telefonnummer:".length()).trim());
-                isDescription = false;
-            } 
-            else if (trimmedLine.startsWith("Adress:")) {
-                extractedFields.put("address", trimmedLine.substring("Adress:".length()).trim());
-                isDescription = false;
-            } 
-            else if (trimmedLine.startsWith("Lägenhetsnummer:")) {
-                extractedFields.put("apartment", trimmedLine.substring("Lägenhetsnummer:".length()).trim());
-                isDescription = false;
-            } 
-            else if (trimmedLine.startsWith("Meddelande:")) {
-                isDescription = true;
-                foundMeddelande = true;
-                String initialDescription = trimmedLine.substring("Meddelande:".length()).trim();
-                if (!initialDescription.isEmpty()) {
-                    description.append(initialDescription);
-                }
-            }
-            else if (isDescription && foundMeddelande) {
-                // Bevara radbrytningar genom att lägga till en ny rad
-                if (description.length() > 0) {
-                    description.append("\n");
-                }
-                description.append(trimmedLine);
-            }
-            else {
-                // Om vi har en rad som inte passar in i något mönster,
-                // kan vi behöva hantera sammanslagna fält
-                for (String fieldPrefix : new String[]{"Namn:", "E-post:", "Telefonnummer:", "Adress:", "Lägenhetsnummer:", "Meddelande:"}) {
-                    int index = trimmedLine.indexOf(fieldPrefix);
-                    if (index > 0) {
-                        // Vi hittade ett fältprefix i mitten av raden
-                        String beforePrefix = trimmedLine.substring(0, index).trim();
-                        String afterPrefix = trimmedLine.substring(index).trim();
-                        
-                        // Rekursiv behandling för att hantera multipla fält på samma rad
-                        processPartialLine(beforePrefix, extractedFields, description, isDescription);
-                        processPartialLine(afterPrefix, extractedFields, description, isDescription);
-                        break;
+    private EmailSourceProperties.Source findSource(String sourceName) {
+        return sources.stream()
+            .filter(candidate -> candidate.getName().equals(sourceName))
+            .findFirst()
+            .orElseGet(() -> {
+                log.warn("Source {} no longer configured, using {}", sourceName, sources.get(0).getName());
+                return sources.get(0);
+            });
+    }
+
+    /**
+     * Lägger originalmejlet i arkivet. Ett fel här ska inte stoppa inläsningen, felanmälan finns redan.
+     */
+    private void archive(Message message, EmailSourceProperties.Source source, String messageId,
+            String pendingTaskId, String result) {
+        if (!archiveEnabled) {
+            return;
+        }
+        try {
+            byte[] raw = RawMessageCodec.compress(message);
+            archivedEmailRepository.insert(ArchivedEmail.builder()
+                .source(source.getName())
+                .messageId(messageId)
+                .pendingTaskId(pendingTaskId)
+                .result(result)
+                .archivedAt(LocalDateTime.now())
+                .rawMessage(raw)
+                .rawSize(raw.length)
+                .build());
+        } catch (Exception e) {
+            log.warn("Could not archive message {} for pending task {}: {}", messageId, pendingTaskId, e.getMessage());
+        }
+    }
+
+    /**
+     * Sant om någon av adresserna finns bland de önskade. En tom regel matchar allt.
+     */
+    private boolean matchesAny(Address[] addresses, List<String> wanted, String field) {
+        if (wanted == null || wanted.isEmpty()) {
+            return true;
+        }
+        if (addresses == null) {
+            return false;
+        }
+        for (Address address : addresses) {
+            if (address instanceof InternetAddress internetAddress) {
+                String value = internetAddress.getAddress();
+                log.info("Message {}: {}", field, value);
+                for (String candidate : wanted) {
+                    if (candidate.equalsIgnoreCase(value)) {
+                        return true;
                     }
                 }
             }
         }
+        return false;
+    }
 
-        // Rensa beskrivningen och ta bort eventuell text efter "---"
-        String finalDescription = description.toString().trim();
-        int separatorIndex = finalDescription.indexOf("---");
-        if (separatorIndex > 0) {
-            finalDescription = finalDescription.substring(0, separatorIndex).trim();
+    /**
+     * Läser in ett mejl som en PendingTask. Samma Message-ID läses aldrig in två gånger,
+     * och en anmälan med samma innehåll som en nyligen inkommen slås ihop med den
+     * innan några översättningsanrop görs.
+     *
+     * @return Utfallet, används som tagg på dftm.email.messages
+     */
+    private String processEmail(Message message, EmailSourceProperties.Source source) throws Exception {
+        String messageId = getMessageId(message);
+        if (pendingTaskService.isAlreadyIngested(messageId)) {
+            log.info("Message {} has already been ingested, skipping", messageId);
+            return "duplicate";
         }
         
+        Observation parseStage = startStage("parse");
+        ParsedFaultReport report;
+        try (Observation.Scope scope = parseStage.openScope()) {
+            report = parse(message, source.getParserProfile());
+            if (report == null) {
+                log.warn("\033[0;33m Skipping empty email message \033[0m");
+                return "empty";
+            }
+        } finally {
+            parseStage.stop();
+        }
+        String finalDescription = report.getDescription();
         if (finalDescription.isEmpty()) {
             finalDescription = "Ingen beskrivning tillgänglig";
         }
         
+        String name = report.getName();
+        String email = report.getEmail();
+        String phone = report.getPhone();
+        String address = report.getAddress();
+        String apartment = report.getApartment();
+
+        LocalDateTime now = LocalDateTime.now();
+        
+        // En anmälan som redan finns (t.ex. formuläret skickat två gånger) slås ihop utan översättning
+        String fingerprint = FaultReportFingerprint.of(name, address, apartment, finalDescription);
+        PendingTask original = pendingTaskService.mergeDuplicate(fingerprint, messageId, now);
+        if (original != null) {
+            archive(message, source, messageId, original.getId(), "merged");
+            return "merged";
+        }
+        
         // Identifiera språket i beskrivningen
-        String detectedLanguageCode = googleTranslateClient.detectLanguage(finalDescription);
+        Observation detectStage = startStage("detect-language");
+        String detectedLanguageCode;
+        try (Observation.Scope scope = detectStage.openScope()) {
+            detectedLanguageCode = googleTranslateClient.detectLanguage(finalDescription);
+        } finally {
+            detectStage.stop();
+        }
         Language detectedLanguage = null;
         
         try {
@@ -324,37 +554,38 @@ public class EmailListener {
         
         // Översätt beskrivningen till alla andra språk
         Map<Language, String> translations = new HashMap<>();
-        for (Language targetLanguage : Language.values()) {
-            // Hoppa över originalspråket
-            if (targetLanguage == detectedLanguage) {
-                continue;
-            }
+        Observation translateStage = startStage("translate");
+        try (Observation.Scope scope = translateStage.openScope()) {
+            for (Language targetLanguage : Language.values()) {
+                // Hoppa över originalspråket
+                if (targetLanguage == detectedLanguage) {
+                    continue;
+                }
             
-            try {
-                String translatedText = googleTranslateClient.translate(
-                    finalDescription, 
-                    detectedLanguage.getCode(), 
-                    targetLanguage.getCode()
-                );
-                translations.put(targetLanguage, translatedText);
-                log.info("Översatte beskrivning från {} till {}", detectedLanguage.getCode(), targetLanguage.getCode());
-            } catch (Exception e) {
-                log.error("Fel vid översättning till {}: {}", targetLanguage.getCode(), e.getMessage(), e);
+                try {
+                    String translatedText = googleTranslateClient.translate(
+                        finalDescription, 
+                        detectedLanguage.getCode(), 
+                        targetLanguage.getCode()
+                    );
+                    translations.put(targetLanguage, translatedText);
+                    log.info("Översatte beskrivning från {} till {}", detectedLanguage.getCode(), targetLanguage.getCode());
+                } catch (Exception e) {
+                    log.error("Fel vid översättning till {}: {}", targetLanguage.getCode(), e.getMessage(), e);
+                }
             }
+        } finally {
+            translateStage.stop();
         }
         
-        // Logga de extraherade fälten
-        log.info("\033[0;32m Extracted fields: \033[0m");
-        extractedFields.forEach((key, value) -> log.info("\033[0;32m {} = {} \033[0m", key, value));
-        log.info("\033[0;32m description = {} \033[0m", finalDescription);
+        TaskPriority priority = priorityInferenceService.infer(finalDescription, translations);
         
-        String name = extractedFields.getOrDefault("name", "");
-        String email = extractedFields.getOrDefault("email", "");
-        String phone = extractedFields.getOrDefault("phone", "");
-        String address = extractedFields.getOrDefault("address", "");
-        String apartment = extractedFields.getOrDefault("apartment", "");
-
-        LocalDateTime now = LocalDateTime.now();
+        // Logga de extraherade fälten
+        log.info("\033[0;32m Extracted fields with profile {} (structured: {}): \033[0m",
+            report.getProfile(), report.isStructured());
+        log.info("\033[0;32m name = {}, email = {}, phone = {}, address = {}, apartment = {} \033[0m",
+            name, email, phone, address, apartment);
+        log.info("\033[0;32m description = {}, priority = {} \033[0m", finalDescription, priority);
         
         try {
             // Skapa ett nytt ärende
@@ -367,8 +598,13 @@ public class EmailListener {
                 .description(finalDescription)
                 .descriptionLanguage(detectedLanguage)
                 .descriptionTranslations(translations)
+                .priority(priority)
                 .status("NEW")
                 .received(now)
+                .source(source.getName())
+                .messageId(messageId)
+                .fingerprint(fingerprint)
+                .addressKeyVersion(AddressNormalizer.VERSION)
                 .build();
             
             log.info("\033[0;34m Creating PendingTask: \n" + 
@@ -388,50 +624,52 @@ public class EmailListener {
                     pendingTask.getDescription(),
                     pendingTask.getReceived());
                     
-            PendingTask savedTask = pendingTaskRepository.save(pendingTask);
+            Observation saveStage = startStage("save");
+            PendingTask savedTask;
+            try (Observation.Scope scope = saveStage.openScope()) {
+                savedTask = pendingTaskRepository.save(pendingTask);
+            } finally {
+                saveStage.stop();
+            }
             
             log.info("\033[0;32m Successfully created pending task with ID: {} \033[0m", 
                 savedTask.getId());
+            archive(message, source, messageId, savedTask.getId(), "processed");
+            return "processed";
+        } catch (DuplicateKeyException e) {
+            // En annan instans hann spara samma Message-ID först
+            log.info("Message {} was ingested concurrently, skipping", messageId);
+            return "duplicate";
         } catch (Exception e) {
             log.error("\033[0;31m Failed to save pending task: {} \033[0m", e.getMessage(), e);
             throw e;
         }
     }
 
-    private void processPartialLine(String line, Map<String, String> extractedFields, StringBuilder description, boolean isDescription) {
-        if (line.isEmpty()) {
+    private String getMessageId(Message message) throws MessagingException {
+        String[] header = message.getHeader("Message-ID");
+        if (header == null || header.length == 0 || header[0].isBlank()) {
+            return null;
+        }
+        return header[0].trim();
+    }
+
+    private Observation startStage(String stage) {
+        return Observation.createNotStarted("dftm.email.stage", observationRegistry)
+            .lowCardinalityKeyValue("stage", stage)
+            .start();
+    }
+
+    private void fillFromSender(ParsedFaultReport report, Message message) throws MessagingException {
+        Address[] from = message.getFrom();
+        if (from == null || from.length == 0 || !(from[0] instanceof InternetAddress sender)) {
             return;
         }
-        
-        String trimmedLine = line.trim();
-        
-        if (trimmedLine.startsWith("Namn:")) {
-            extractedFields.put("name", trimmedLine.substring("Namn:".length()).trim());
-        } 
-        else if (trimmedLine.startsWith("E-post:")) {
-            extractedFields.put("email", trimmedLine.substring("E-post:".length()).trim());
-        } 
-        else if (trimmedLine.startsWith("Telefonnummer:")) {
-            extractedFields.put("phone", trimmedLine.substring("Telefonnummer:".length()).trim());
-        } 
-        else if (trimmedLine.startsWith("Adress:")) {
-            extractedFields.put("address", trimmedLine.substring("Adress:".length()).trim());
-        } 
-        else if (trimmedLine.startsWith("Lägenhetsnummer:")) {
-            extractedFields.put("apartment", trimmedLine.substring("Lägenhetsnummer:".length()).trim());
-        } 
-        else if (trimmedLine.startsWith("Meddelande:")) {
-            String initialDescription = trimmedLine.substring("Meddelande:".length()).trim();
-            if (!initialDescription.isEmpty()) {
-                description.append(initialDescription);
-            }
+        if (report.getName().isEmpty() && sender.getPersonal() != null) {
+            report.setName(sender.getPersonal());
         }
-        else if (isDescription) {
-            // Bevara radbrytningar även i processPartialLine
-            if (description.length() > 0) {
-                description.append("\n");
-            }
-            description.append(trimmedLine);
+        if (report.getEmail().isEmpty()) {
+            report.setEmail(sender.getAddress());
         }
     }
 
@@ -513,30 +751,14 @@ public class EmailListener {
             .replace("&Ouml;", "Ö")
             .replace("&Aring;", "Å");
         
-        // Normalisera fältstruktur för bättre parsning
-        decodedHtml = decodedHtml
-            .replace("Namn:", "\nNamn:")
-            .replace("E-post:", "\nE-post:")
-            .replace("Telefonnummer:", "\nTelefonnummer:")
-            .replace("Adress:", "\nAdress:")
-            .replace("Lägenhetsnummer:", "\nLägenhetsnummer:")
-            .replace("Meddelande:", "\nMeddelande:")
-            .replace("---", "\n---\n");
+        // Etiketterna hittas även mitt på en rad av parserprofilen, så bara separatorn bryts ut
+        decodedHtml = decodedHtml.replace("---", "\n---\n");
         
         // Ta bort upprepade radbrytningar och onödiga blanksteg
         decodedHtml = decodedHtml.replaceAll("\\n\\s*\\n", "\n")
                                  .replaceAll("[ \\t]+", " ") // Ersätt endast mellanslag och tabbar, bevara radbrytningar
                                  .trim();
         
-        // Lägg till radbrytningar på nytt
-        decodedHtml = decodedHtml
-                                 .replace("Namn:", "\nNamn:")
-                                 .replace("E-post:", "\nE-post:")
-                                 .replace("Telefonnummer:", "\nTelefonnummer:")
-                                 .replace("Adress:", "\nAdress:")
-                                 .replace("Lägenhetsnummer:", "\nLägenhetsnummer:")
-                                 .replace("Meddelande:", "\nMeddelande:");
-        
         return decodedHtml;
     }
 } 
\ No newline at end of file
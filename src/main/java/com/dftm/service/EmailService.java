@@ -4,6 +4,8 @@ import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
@@ -14,9 +16,14 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class EmailService {
     private final JavaMailSender emailSender;
+    private final ObservationRegistry observationRegistry;
 
     public void sendTaskNotification(String to, String subject, String content) {
-        try {
+        Observation observation = Observation.createNotStarted("dftm.smtp.send", observationRegistry)
+            .contextualName("smtp send")
+            .start();
+        String outcome = "error";
+        try (Observation.Scope scope = observation.openScope()) {
             MimeMessage message = emailSender.createMimeMessage();
             MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
             
@@ -25,9 +32,13 @@ public class EmailService {
             helper.setText(content, true);
             
             emailSender.send(message);
+            outcome = "success";
         } catch (MessagingException e) {
             log.error("Failed to send email", e);
+            observation.error(e);
             throw new RuntimeException("Could not send email", e);
+        } finally {
+            observation.lowCardinalityKeyValue("outcome", outcome).stop();
         }
     }
     
@@ -0,0 +1,39 @@
+package com.dftm.service;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.Locale;
+
+import org.springframework.util.DigestUtils;
+
+/**
+ * Fingeravtryck för en felanmälan. Två anmälningar med samma namn, adress, lägenhet
+ * och beskrivning ger samma värde även om skiftläge, blanksteg eller skiljetecken skiljer sig,
+ * t.ex. när en hyresgäst skickar webbformuläret två gånger. Adress och lägenhet jämförs
+ * med sina nycklar från {@link AddressNormalizer}, så "Storg. 5 B" och "Storgatan 5b" är lika.
+ */
+final class FaultReportFingerprint {
+
+    private FaultReportFingerprint() {
+    }
+
+    static String of(String name, String address, String apartment, String description) {
+        String key = String.join("|", normalize(name), key(AddressNormalizer.buildingKey(address)),
+            key(AddressNormalizer.apartmentKey(apartment)), normalize(description));
+        return DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String key(String value) {
+        return value != null ? value : "";
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        return Normalizer.normalize(value, Normalizer.Form.NFKC)
+            .toLowerCase(Locale.ROOT)
+            .replaceAll("[^\\p{L}\\p{N}]+", " ")
+            .trim();
+    }
+}
@@ -0,0 +1,161 @@
+package com.dftm.service;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.dftm.model.SchedulerLease;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Väljer en ledare per schemalagt jobb med ett lås i MongoDB, så att flera instanser
+ * bakom en lastbalanserare inte kör samma jobb samtidigt. Låset förnyas oftare än det
+ * går ut; dör ledaren tar en annan instans över inom leader.lease-ms + leader.renew-ms.
+ * Vid normal avstängning släpps låset direkt.
+ * <p>
+ * Förnyelsen går på en egen tråd. På Springs schemaläggare, som har en enda tråd, kunde
+ * en lång inläsning av inkorgen hålla förnyelsen borta tills låset gått ut. Tider jämförs
+ * som Instant så att instanser i olika tidszoner eller över sommartidsskiftet är överens.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LeaderElectionService {
+    public static final String EMAIL_INGEST = "email-ingest";
+    private static final List<String> LEASES = List.of(EMAIL_INGEST);
+
+    private final MongoTemplate mongoTemplate;
+
+    private final String ownerId = createOwnerId();
+    // Hur länge vi själva räknar med att äga varje lås, mätt från innan anropet gjordes
+    private final Map<String, Instant> heldUntil = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService renewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "leader-renewal");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${leader.enabled:true}")
+    private boolean enabled;
+
+    @Value("${leader.lease-ms:15000}")
+    private long leaseMs;
+
+    @Value("${leader.renew-ms:5000}")
+    private long renewMs;
+
+    @PostConstruct
+    public void startRenewal() {
+        if (enabled) {
+            renewer.scheduleWithFixedDelay(this::renewLeases, 0, renewMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Tar eller förnyar låset. Lyckas bara om det är ledigt, har gått ut eller redan är vårt.
+     *
+     * @return true om den här instansen är ledare för jobbet
+     */
+    public boolean tryAcquire(String leaseName) {
+        if (!enabled) {
+            return true;
+        }
+        Instant now = Instant.now();
+        Instant until = now.plus(Duration.ofMillis(leaseMs));
+        Query query = Query.query(Criteria.where("_id").is(leaseName)
+            .orOperator(
+                Criteria.where("owner").is(ownerId),
+                Criteria.where("lockedUntil").lt(now)));
+        Update update = new Update()
+            .set("owner", ownerId)
+            .set("lockedUntil", until);
+        boolean wasLeader = isLeader(leaseName);
+        try {
+            SchedulerLease lease = mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().upsert(true).returnNew(true), SchedulerLease.class);
+            if (lease != null && ownerId.equals(lease.getOwner())) {
+                if (!wasLeader) {
+                    mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(leaseName).and("owner").is(ownerId)),
+                        Update.update("acquiredAt", now), SchedulerLease.class);
+                    log.info("Acquired leadership for {} as {}", leaseName, ownerId);
+                }
+                heldUntil.put(leaseName, until);
+                return true;
+            }
+        } catch (DuplicateKeyException e) {
+            // Låset finns och ägs av en annan instans, upsert försökte skapa ett nytt
+        } catch (Exception e) {
+            log.warn("Could not renew lease {}: {}", leaseName, e.getMessage());
+        }
+        if (heldUntil.remove(leaseName) != null) {
+            log.warn("Lost leadership for {}", leaseName);
+        }
+        return false;
+    }
+
+    /**
+     * Billig kontroll utan databasanrop, används mellan stegen i ett pågående jobb
+     */
+    public boolean isLeader(String leaseName) {
+        if (!enabled) {
+            return true;
+        }
+        Instant until = heldUntil.get(leaseName);
+        return until != null && Instant.now().isBefore(until);
+    }
+
+    void renewLeases() {
+        if (!enabled) {
+            return;
+        }
+        LEASES.forEach(this::tryAcquire);
+    }
+
+    @PreDestroy
+    public void releaseLeases() {
+        renewer.shutdownNow();
+        if (!enabled) {
+            return;
+        }
+        heldUntil.keySet().forEach(leaseName -> {
+            try {
+                mongoTemplate.remove(Query.query(Criteria.where("_id").is(leaseName).and("owner").is(ownerId)),
+                    SchedulerLease.class);
+                log.info("Released leadership for {}", leaseName);
+            } catch (Exception e) {
+                log.warn("Could not release lease {}: {}", leaseName, e.getMessage());
+            }
+        });
+        heldUntil.clear();
+    }
+
+    private static String createOwnerId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        return host + "-" + ProcessHandle.current().pid() + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -1,11 +1,41 @@
 package com.dftm.service;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.dftm.dto.BulkItemResult;
+import com.dftm.dto.BulkOperationResult;
+import com.dftm.dto.BuildingSummary;
+import com.dftm.dto.BulkPendingTaskRequest;
+import com.dftm.exception.BadRequestException;
+import com.dftm.exception.ConflictException;
+import com.dftm.exception.ResourceNotFoundException;
 import com.dftm.model.PendingTask;
 import com.dftm.model.Task;
 import com.dftm.model.TaskPriority;
@@ -21,9 +51,20 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 @Slf4j
 public class PendingTaskService {
+    private static final int MAX_BULK_SIZE = 500;
+    private static final List<String> CLOSED_STATUSES = List.of("APPROVED", "REJECTED");
+
     private final PendingTaskRepository pendingTaskRepository;
     private final TaskRepository taskRepository;
     private final UserService userService;
+    private final StatisticsService statisticsService;
+    private final ChangeFeedService changeFeedService;
+    private final MongoTemplate mongoTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final PriorityInferenceService priorityInferenceService;
+
+    @Value("${email.dedup-window-hours:24}")
+    private long dedupWindowHours;
 
     public List<PendingTask> getAllPendingTasks() {
         log.debug("Fetching all pending tasks from database");
@@ -50,26 +91,101 @@ public class PendingTaskService {
         return pendingTaskRepository.findByStatus(status);
     }
 
-    public List<PendingTask> getPendingTasksByAddress(String address) {
-        log.debug("Fetching pending tasks with address containing={}", address);
-        return pendingTaskRepository.findByAddressContaining(address);
+    /**
+     * Felanmälningar för samma byggnad som adressen, oavsett hur adressen är skriven.
+     * Slår upp den normaliserade byggnadsnyckeln i indexet building_status_received.
+     *
+     * @param openOnly Bara felanmälningar som varken är godkända eller avslagna
+     */
+    public List<PendingTask> getPendingTasksByAddress(String address, boolean openOnly) {
+        String buildingKey = AddressNormalizer.buildingKey(address);
+        if (buildingKey == null) {
+            throw new BadRequestException("Address is required");
+        }
+        log.debug("Fetching pending tasks for building {} (openOnly={})", buildingKey, openOnly);
+        return openOnly
+                ? pendingTaskRepository.findByBuildingKeyAndStatusNotInOrderByReceivedDesc(buildingKey, CLOSED_STATUSES)
+                : pendingTaskRepository.findByBuildingKeyOrderByReceivedDesc(buildingKey);
     }
 
-    public PendingTask approvePendingTask(String pendingTaskId) {
-        PendingTask pendingTask = pendingTaskRepository.findById(pendingTaskId)
-                .orElseThrow(() -> new RuntimeException("Pending task not found"));
+    /**
+     * Antal felanmälningar per byggnad, byggnader med flest öppna först
+     */
+    public List<BuildingSummary> getBuildingSummaries() {
+        Document isOpen = new Document("$not", List.of(new Document("$in", List.of("$status", CLOSED_STATUSES))));
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("buildingKey").ne(null)),
+                Aggregation.sort(Sort.Direction.DESC, "received"),
+                Aggregation.stage(new Document("$group", new Document("_id", "$buildingKey")
+                        .append("address", new Document("$first", "$address"))
+                        .append("totalReports", new Document("$sum", 1))
+                        .append("openReports", new Document("$sum", new Document("$cond", List.of(isOpen, 1, 0))))
+                        .append("openApartments", new Document("$addToSet",
+                                new Document("$cond", List.of(isOpen, "$apartmentKey", Aggregation.REMOVE))))
+                        .append("lastReceived", new Document("$max", "$received")))),
+                Aggregation.sort(Sort.by(Sort.Direction.DESC, "openReports", "lastReceived")));
 
-        // Markera pending task som godkänd
-        pendingTask.setStatus("APPROVED");
-        
-        // Skapa en Task från den godkända PendingTask
-        createTaskFromPendingTask(pendingTask);
-        
-        return pendingTaskRepository.save(pendingTask);
+        return mongoTemplate.aggregate(aggregation, "pendingTasks", Document.class).getMappedResults().stream()
+                .map(row -> BuildingSummary.builder()
+                        .buildingKey(row.getString("_id"))
+                        .address(row.getString("address"))
+                        .totalReports(row.get("totalReports", Number.class).longValue())
+                        .openReports(row.get("openReports", Number.class).longValue())
+                        .openApartments(row.getList("openApartments", Object.class, List.of()).stream()
+                                .filter(Objects::nonNull)
+                                .map(Object::toString)
+                                .sorted()
+                                .toList())
+                        .lastReceived(row.getDate("lastReceived") != null
+                                ? LocalDateTime.ofInstant(row.getDate("lastReceived").toInstant(), ZoneId.systemDefault())
+                                : null)
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Räknar om byggnads- och lägenhetsnyckel och fingeravtryck på felanmälningar som sparades
+     * innan nycklarna fanns eller med en äldre version av {@link AddressNormalizer}. Fingeravtrycket
+     * räknas bara om där det finns, det vill säga på felanmälningar som kom via mejl.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillBuildingKeys() {
+        Query query = Query.query(new Criteria().orOperator(
+                Criteria.where("addressKeyVersion").exists(false),
+                Criteria.where("addressKeyVersion").lt(AddressNormalizer.VERSION)));
+        query.fields().include("name", "address", "apartment", "description", "fingerprint");
+        long updated;
+        try (Stream<PendingTask> outdated = mongoTemplate.stream(query, PendingTask.class)) {
+            updated = outdated
+                    .mapToLong(pendingTask -> {
+                        Update update = new Update()
+                                .set("buildingKey", AddressNormalizer.buildingKey(pendingTask.getAddress()))
+                                .set("apartmentKey", AddressNormalizer.apartmentKey(pendingTask.getApartment()))
+                                .set("addressKeyVersion", AddressNormalizer.VERSION);
+                        if (pendingTask.getFingerprint() != null) {
+                            update.set("fingerprint", FaultReportFingerprint.of(pendingTask.getName(),
+                                    pendingTask.getAddress(), pendingTask.getApartment(), pendingTask.getDescription()));
+                        }
+                        return mongoTemplate.updateFirst(
+                                Query.query(Criteria.where("_id").is(pendingTask.getId())), update,
+                                PendingTask.class).getModifiedCount();
+                    })
+                    .sum();
+        }
+        if (updated > 0) {
+            log.info("Recomputed building keys and fingerprints for {} pending tasks", updated);
+        }
+    }
+
+    public PendingTask approvePendingTask(String pendingTaskId) {
+        return approvePendingTask(pendingTaskId, null, null, null);
     }
     
     /**
-     * Godkänner en väntande uppgift och uppdaterar tilldelningsinformation.
+     * Godkänner en väntande uppgift och uppdaterar tilldelningsinformation. Statusen tas
+     * med findAndModify mot den lästa versionen innan uppgiften skapas, så två samtidiga
+     * godkännanden eller ett godkännande av en redan hanterad felanmälan ger 409 utan
+     * att någon Task skapas. Går det inte att spara uppgiften återställs statusen.
      * 
      * @param pendingTaskId ID för uppgiften som ska godkännas
      * @param assignedToUserId ID för användaren som uppgiften tilldelas
@@ -79,36 +195,270 @@ public class PendingTaskService {
      */
     public PendingTask approvePendingTask(String pendingTaskId, String assignedToUserId, String assignedByUserId, String dueDate) {
         log.info("Approving pending task with ID: {}, assignedToUserId: {}, assignedByUserId: {}, dueDate: {}", pendingTaskId, assignedToUserId, assignedByUserId, dueDate);
+        LocalDateTime parsedDueDate = parseDueDate(dueDate);
         
         PendingTask pendingTask = pendingTaskRepository.findById(pendingTaskId)
-                .orElseThrow(() -> new RuntimeException("Pending task not found"));
+                .orElseThrow(() -> new ResourceNotFoundException("Pending task not found with id: " + pendingTaskId));
+        if (CLOSED_STATUSES.contains(pendingTask.getStatus())) {
+            throw new ConflictException("Pending task is already " + pendingTask.getStatus());
+        }
 
-        // Markera pending task som godkänd
-        pendingTask.setStatus("APPROVED");
-        
-        // Uppdatera tilldelningsinformation om den angetts
+        // Markera pending task som godkänd, bara om ingen annan har hunnit ändra den
+        Update update = new Update().set("status", "APPROVED").inc("version", 1);
         if (assignedToUserId != null && !assignedToUserId.isEmpty()) {
-            pendingTask.setAssignedToUserId(assignedToUserId);
+            update.set("assignedToUserId", assignedToUserId);
         }
-        
         if (assignedByUserId != null && !assignedByUserId.isEmpty()) {
-            pendingTask.setAssignedByUserId(assignedByUserId);
+            update.set("assignedByUserId", assignedByUserId);
+        }
+        Query claim = Query.query(Criteria.where("_id").is(pendingTaskId)
+                .and("status").nin(CLOSED_STATUSES)
+                .and("version").is(pendingTask.getVersion()));
+        PendingTask approved = mongoTemplate.findAndModify(claim, update,
+                FindAndModifyOptions.options().returnNew(true), PendingTask.class);
+        if (approved == null) {
+            throw new ConflictException("Pending task was modified concurrently");
         }
         
         // Skapa en Task från den godkända PendingTask
-        Task createdTask = createTaskFromPendingTask(pendingTask, dueDate);
-        log.info("Created new task from pending task: {}", createdTask.getId());
+        try {
+            Task createdTask = taskRepository.save(buildTaskFromPendingTask(approved, parsedDueDate));
+            log.info("Created new task from pending task: {}", createdTask.getId());
+        } catch (RuntimeException e) {
+            log.error("Could not create task for pending task {}, restoring status {}: {}",
+                    pendingTaskId, pendingTask.getStatus(), e.getMessage());
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(pendingTaskId)
+                            .and("version").is(approved.getVersion())),
+                    new Update().set("status", pendingTask.getStatus()).inc("version", 1), PendingTask.class);
+            throw e;
+        }
         
-        return pendingTaskRepository.save(pendingTask);
+        statisticsService.invalidate();
+        changeFeedService.publishLocal(ChangeFeedService.PENDING_TASKS, "UPDATE", pendingTaskId, approved);
+        return approved;
     }
     
-    public PendingTask rejectPendingTask(String pendingTaskId) {
-        PendingTask pendingTask = pendingTaskRepository.findById(pendingTaskId)
-                .orElseThrow(() -> new RuntimeException("Pending task not found"));
+    /**
+     * Godkänner flera väntande uppgifter på en gång. Alla uppgifter skapas med
+     * ett insertMany och statusen sätts med ett updateMulti i samma transaktion,
+     * så antingen blir hela batchen godkänd eller ingenting.
+     * 
+     * @param request ID:n samt tilldelning och förfallodatum för de nya uppgifterna
+     * @param assignedByUserId Användaren som godkänner
+     * @return Resultat per id
+     */
+    public BulkOperationResult approvePendingTasks(BulkPendingTaskRequest request, String assignedByUserId) {
+        List<String> ids = validateBulkIds(request);
+        LocalDateTime dueDate = parseDueDate(request.getDueDate());
+        
+        Map<String, BulkItemResult> results = new LinkedHashMap<>();
+        List<PendingTask> approvable = collectOpenPendingTasks(ids, results);
+        
+        if (!approvable.isEmpty()) {
+            List<String> approvableIds = approvable.stream().map(PendingTask::getId).collect(Collectors.toList());
+            List<Task> tasks = approvable.stream()
+                    .peek(pendingTask -> {
+                        if (request.getAssignedToUserId() != null && !request.getAssignedToUserId().isEmpty()) {
+                            pendingTask.setAssignedToUserId(request.getAssignedToUserId());
+                        }
+                        pendingTask.setAssignedByUserId(assignedByUserId);
+                    })
+                    .map(pendingTask -> buildTaskFromPendingTask(pendingTask, dueDate))
+                    .collect(Collectors.toList());
+            
+            Update update = new Update().set("status", "APPROVED").set("assignedByUserId", assignedByUserId);
+            if (request.getAssignedToUserId() != null && !request.getAssignedToUserId().isEmpty()) {
+                update.set("assignedToUserId", request.getAssignedToUserId());
+            }
+            
+            try {
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    mongoTemplate.insert(tasks, Task.class);
+                    long modified = mongoTemplate.updateMulti(
+                            openPendingTasksQuery(approvableIds), update.inc("version", 1), PendingTask.class)
+                            .getModifiedCount();
+                    if (modified != approvableIds.size()) {
+                        // Någon annan har hunnit ändra status, rulla tillbaka hela batchen
+                        throw new ConflictException("Pending tasks were modified concurrently");
+                    }
+                });
+                approvableIds.forEach(id -> results.put(id, BulkItemResult.ok(id)));
+                changeFeedService.publishLocal(ChangeFeedService.PENDING_TASKS, "UPDATE", approvableIds);
+                log.info("Approved {} pending tasks in one transaction", approvableIds.size());
+            } catch (Exception e) {
+                log.error("Failed to approve pending tasks in bulk: {}", e.getMessage(), e);
+                approvableIds.forEach(id -> results.put(id, BulkItemResult.failed(id, e.getMessage())));
+            }
+            statisticsService.invalidate();
+        }
+        
+        return BulkOperationResult.of(ids.stream().map(results::get).collect(Collectors.toList()));
+    }
+    
+    /**
+     * Avslår flera väntande uppgifter med ett enda updateMulti
+     * 
+     * @param request ID:n för uppgifterna som ska avslås
+     * @return Resultat per id
+     */
+    public BulkOperationResult rejectPendingTasks(BulkPendingTaskRequest request) {
+        List<String> ids = validateBulkIds(request);
+        
+        Map<String, BulkItemResult> results = new LinkedHashMap<>();
+        List<String> rejectableIds = collectOpenPendingTasks(ids, results).stream()
+                .map(PendingTask::getId)
+                .collect(Collectors.toList());
+        
+        if (!rejectableIds.isEmpty()) {
+            long modified = mongoTemplate.updateMulti(openPendingTasksQuery(rejectableIds),
+                    new Update().set("status", "REJECTED").inc("version", 1), PendingTask.class).getModifiedCount();
+            List<String> rejectedIds = rejectableIds;
+            if (modified != rejectableIds.size()) {
+                // Någon annan har hunnit stänga en del av dem mellan läsningen och uppdateringen
+                rejectedIds = currentlyRejected(rejectableIds);
+                log.warn("{} of {} pending tasks were closed concurrently while rejecting",
+                        rejectableIds.size() - rejectedIds.size(), rejectableIds.size());
+            }
+            for (String id : rejectableIds) {
+                results.put(id, rejectedIds.contains(id)
+                        ? BulkItemResult.ok(id)
+                        : BulkItemResult.failed(id, "Pending task was modified concurrently"));
+            }
+            if (!rejectedIds.isEmpty()) {
+                changeFeedService.publishLocal(ChangeFeedService.PENDING_TASKS, "UPDATE", rejectedIds);
+                statisticsService.invalidate();
+            }
+        }
+        
+        return BulkOperationResult.of(ids.stream().map(results::get).collect(Collectors.toList()));
+    }
+    
+    /**
+     * De id:n som är REJECTED efter ett updateMulti som ändrade färre än väntat. Resten har
+     * någon annan hunnit godkänna eller ändra. En felanmälan som avslogs samtidigt av ett annat
+     * anrop har samma utfall och räknas som avslagen.
+     */
+    private List<String> currentlyRejected(List<String> ids) {
+        Query query = Query.query(Criteria.where("_id").in(ids).and("status").is("REJECTED"));
+        query.fields().include("_id");
+        return mongoTemplate.find(query, PendingTask.class).stream()
+                .map(PendingTask::getId)
+                .collect(Collectors.toList());
+    }
+    
+    private List<String> validateBulkIds(BulkPendingTaskRequest request) {
+        if (request.getIds() == null || request.getIds().isEmpty()) {
+            throw new BadRequestException("No pending task ids given");
+        }
+        if (request.getIds().size() > MAX_BULK_SIZE) {
+            throw new BadRequestException("At most " + MAX_BULK_SIZE + " pending tasks can be handled at once");
+        }
+        return new ArrayList<>(new LinkedHashSet<>(request.getIds()));
+    }
+    
+    /**
+     * Hämtar alla angivna väntande uppgifter i ett anrop och registrerar
+     * fel för de som saknas eller redan är hanterade.
+     * 
+     * @return De uppgifter som fortfarande kan godkännas eller avslås
+     */
+    private List<PendingTask> collectOpenPendingTasks(List<String> ids, Map<String, BulkItemResult> results) {
+        Map<String, PendingTask> found = new HashMap<>();
+        pendingTaskRepository.findAllById(ids).forEach(pendingTask -> found.put(pendingTask.getId(), pendingTask));
+        
+        List<PendingTask> open = new ArrayList<>();
+        for (String id : ids) {
+            PendingTask pendingTask = found.get(id);
+            if (pendingTask == null) {
+                results.put(id, BulkItemResult.failed(id, "Pending task not found"));
+            } else if (CLOSED_STATUSES.contains(pendingTask.getStatus())) {
+                results.put(id, BulkItemResult.failed(id, "Pending task is already " + pendingTask.getStatus()));
+            } else {
+                open.add(pendingTask);
+            }
+        }
+        return open;
+    }
+    
+    private Query openPendingTasksQuery(List<String> ids) {
+        return Query.query(Criteria.where("_id").in(ids).and("status").nin(CLOSED_STATUSES));
+    }
+    
+    /**
+     * Sant om mejlet redan har lästs in, som egen felanmälan eller som sammanslagen dubblett.
+     * Fångar mejl som läses igen efter en krasch innan de hann markeras som lästa.
+     */
+    public boolean isAlreadyIngested(String messageId) {
+        if (messageId == null) {
+            return false;
+        }
+        return mongoTemplate.exists(Query.query(new Criteria().orOperator(
+                Criteria.where("messageId").is(messageId),
+                Criteria.where("mergedMessageIds").is(messageId))), PendingTask.class);
+    }
+
+    /**
+     * Slår ihop en inkommande felanmälan med en öppen som har samma fingeravtryck och
+     * kom in inom email.dedup-window-hours. Dubbletten översätts och sparas aldrig.
+     *
+     * @return Den befintliga felanmälan efter sammanslagningen, eller null om ingen fanns
+     */
+    public PendingTask mergeDuplicate(String fingerprint, String messageId, LocalDateTime received) {
+        Query query = Query.query(Criteria.where("fingerprint").is(fingerprint)
+                .and("received").gte(received.minusHours(dedupWindowHours))
+                .and("status").nin(CLOSED_STATUSES))
+            .with(Sort.by(Sort.Direction.DESC, "received"));
+        Update update = new Update()
+                .inc("duplicateCount", 1)
+                .set("lastDuplicateAt", received)
+                .inc("version", 1);
+        if (messageId != null) {
+            update.addToSet("mergedMessageIds", messageId);
+        }
+        PendingTask pendingTask = mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), PendingTask.class);
+        if (pendingTask != null) {
+            log.info("Merged duplicate fault report into pending task {} ({} duplicates)",
+                    pendingTask.getId(), pendingTask.getDuplicateCount());
+            changeFeedService.publishLocal(ChangeFeedService.PENDING_TASKS, "UPDATE", pendingTask.getId(), pendingTask);
+        }
+        return pendingTask;
+    }
 
+    public PendingTask rejectPendingTask(String pendingTaskId) {
         // Markera pending task som avslagen
-        pendingTask.setStatus("REJECTED");
-        return pendingTaskRepository.save(pendingTask);
+        return updatePendingTaskStatus(pendingTaskId, "REJECTED");
+    }
+
+    public PendingTask updatePendingTaskStatus(String pendingTaskId, String status) {
+        log.debug("Updating status for pending task with ID: {} to {}", pendingTaskId, status);
+        return applyUpdate(pendingTaskId, new Update().set("status", status));
+    }
+
+    public PendingTask assignPendingTask(String pendingTaskId, String assignedToUserId, String assignedByUserId) {
+        log.debug("Assigning pending task with ID: {} to user: {}", pendingTaskId, assignedToUserId);
+        return applyUpdate(pendingTaskId, new Update()
+                .set("assignedToUserId", assignedToUserId)
+                .set("assignedByUserId", assignedByUserId));
+    }
+
+    /**
+     * Sätter bara de ändrade fälten med ett enda findAndModify och räknar upp versionen
+     *
+     * @return Den väntande uppgiften efter uppdateringen
+     */
+    private PendingTask applyUpdate(String pendingTaskId, Update update) {
+        PendingTask pendingTask = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(pendingTaskId)),
+                update.inc("version", 1),
+                FindAndModifyOptions.options().returnNew(true),
+                PendingTask.class);
+        if (pendingTask == null) {
+            throw new ResourceNotFoundException("Pending task not found with id: " + pendingTaskId);
+        }
+        statisticsService.invalidate();
+        changeFeedService.publishLocal(ChangeFeedService.PENDING_TASKS, "UPDATE", pendingTaskId, pendingTask);
+        return pendingTask;
     }
 
     /**
@@ -131,40 +481,38 @@ public class PendingTaskService {
     }
     
     /**
-     * Skapar en Task från en godkänd PendingTask.
-     * 
-     * @param pendingTask Den godkända PendingTask som ska konverteras
-     * @return Den skapade Task
+     * Tolkar förfallodatum i ISO-8601 format, eller 7 dagar från nu om inget angetts.
      */
-    private Task createTaskFromPendingTask(PendingTask pendingTask) {
-        return createTaskFromPendingTask(pendingTask, null);
+    private LocalDateTime parseDueDate(String dueDateStr) {
+        if (dueDateStr == null || dueDateStr.isEmpty()) {
+            return LocalDateTime.now().plusDays(7);
+        }
+        try {
+            return LocalDateTime.parse(dueDateStr.replace("Z", ""));
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("Invalid due date: " + dueDateStr);
+        }
     }
     
     /**
-     * Skapar en Task från en godkänd PendingTask med angivet förfallodatum.
+     * Bygger en Task från en godkänd PendingTask utan att spara den.
      * 
      * @param pendingTask Den godkända PendingTask som ska konverteras
-     * @param dueDateStr Förfallodatum för uppgiften (ISO-8601 format)
-     * @return Den skapade Task
+     * @param dueDate Förfallodatum för uppgiften
+     * @return Den osparade Task
      */
-    private Task createTaskFromPendingTask(PendingTask pendingTask, String dueDateStr) {
-        log.info("Creating task from pending task with ID: {}", pendingTask.getId());
-        
+    private Task buildTaskFromPendingTask(PendingTask pendingTask, LocalDateTime dueDate) {
         // Skapa en titel från pendingTask
         String title = generateTitleFromPendingTask(pendingTask);
         
         // Bestäm prioritet baserat på innehållet eller sätt standardprioritet
         TaskPriority priority = determineTaskPriority(pendingTask);
         
-        // Skapa ett dueDate från det angivna datumet eller 7 dagar från nu
-        LocalDateTime dueDate = dueDateStr != null && !dueDateStr.isEmpty() 
-            ? LocalDateTime.parse(dueDateStr.replace("Z", "")) 
-            : LocalDateTime.now().plusDays(7);
-        
         // Skapa Task-objektet
         Task task = Task.builder()
                 .title(title)
                 .description(pendingTask.getDescription())
+                .reporter(pendingTask.getEmail())
                 .status(TaskStatus.PENDING)
                 .priority(priority)
                 .assignedTo(pendingTask.getAssignedToUserId())
@@ -182,8 +530,7 @@ public class PendingTaskService {
             task.setDescriptionTranslations(pendingTask.getDescriptionTranslations());
         }
         
-        // Spara och returnera den nya uppgiften
-        return taskRepository.save(task);
+        return task;
     }
     
     /**
@@ -221,13 +568,16 @@ public class PendingTaskService {
     }
     
     /**
-     * Bestämmer prioritet baserat på innehållet i PendingTask.
+     * Bestämmer prioritet baserat på innehållet i PendingTask. Prioriteten sätts normalt
+     * vid inläsning; felanmälningar från före bedömningen fanns bedöms här.
      * 
      * @param pendingTask PendingTask som prioritet ska bestämmas för
      * @return Lämplig TaskPriority
      */
     private TaskPriority determineTaskPriority(PendingTask pendingTask) {
-        // Som standard, använd MEDIUM prioritet
-        return TaskPriority.MEDIUM;
+        if (pendingTask.getPriority() != null) {
+            return pendingTask.getPriority();
+        }
+        return priorityInferenceService.infer(pendingTask.getDescription(), pendingTask.getDescriptionTranslations());
     }
 } 
\ No newline at end of file
@@ -0,0 +1,161 @@
+package com.dftm.service;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Service;
+
+import com.dftm.config.PriorityRuleProperties;
+import com.dftm.model.Language;
+import com.dftm.model.TaskPriority;
+import com.dftm.service.parser.LabelMatcher;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bedömer prioriteten för en felanmälan utifrån nyckelord på svenska, engelska, polska
+ * och ukrainska. Varje nyckelord har en vikt; träffarna i en text summeras (samma nyckelord
+ * räknas en gång) och summan jämförs med gränserna i {@link PriorityRuleProperties}.
+ * Originaltexten och varje översättning bedöms var för sig och den högsta poängen gäller,
+ * så en översättning kan fånga det som originalspråkets nyckelord missar. LOW ges bara om
+ * ingen text har positiv poäng.
+ *
+ * Nyckelorden matchas som hela ord, så "lock" inte träffar "clock" och "дим" inte "Вадим".
+ * Ordstammar och ordled markeras med asterisk enligt {@link LabelMatcher#ofKeywords}, t.ex.
+ * "läck*" och "*stopp*". Vid överlapp vinner den längsta träffen, därför finns t.ex.
+ * "smoke detector*" med för att inte räknas som "smoke" och "stopp i avlopp*" för att inte
+ * räknas två gånger.
+ *
+ * URGENT kräver ett nyckelord som ensamt når gränsen. Flera vanliga fel i samma text, som
+ * "droppar" och "avlopp", ger som mest HIGH.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PriorityInferenceService {
+    private static final int URGENT_WEIGHT = 10;
+    private static final int HIGH_WEIGHT = 5;
+    private static final int LOW_WEIGHT = -3;
+
+    private final PriorityRuleProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private LabelMatcher<Integer> matcher;
+    private Timer timer;
+
+    @PostConstruct
+    public void init() {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        // Svenska
+        weights(weights, URGENT_WEIGHT, "vattenläcka*", "läcker vatten", "översvämning*", "översvämmat", "vatten på golvet",
+            "brand", "branden", "brinner", "rök", "röken", "röklukt", "gaslukt*", "luktar gas", "strömavbrott*",
+            "elavbrott*", "ingen ström", "ingen värme", "inget vatten", "rörbrott*", "inbrott*", "kortslutning*", "gnistor");
+        weights(weights, HIGH_WEIGHT, "läck*", "dropp*", "*stopp*", "avlopp*", "kylskåp*", "frys*", "spis*", "ugn*",
+            "hiss*", "lås*", "kallt", "inget varmvatten", "mögel*", "fukt*", "trasig ytterdörr");
+        weights(weights, HIGH_WEIGHT, "stopp i avlopp*", "avloppsstopp*");
+        weights(weights, 2, "brandvarnare*");
+        weights(weights, LOW_WEIGHT, "gnisslar", "knarrar", "kosmetisk*", "målning*", "repa", "repor", "tapet*",
+            "när ni har tid");
+        // Engelska
+        weights(weights, URGENT_WEIGHT, "water leak*", "leaking water", "flood", "flooded", "flooding", "fire", "smoke",
+            "gas smell", "smell of gas", "smells of gas", "power outage", "no power", "no electricity", "no heating",
+            "no water", "burst pipe*", "break-in", "short circuit", "sparks", "sparking");
+        weights(weights, HIGH_WEIGHT, "leak*", "drip*", "clogged", "blocked", "drain*", "fridge", "refrigerator",
+            "freezer", "stove", "oven", "elevator", "lift", "lock", "locks", "locked", "cold", "no hot water", "mold*",
+            "mould*", "damp", "dampness");
+        weights(weights, HIGH_WEIGHT, "clogged drain*", "blocked drain*");
+        weights(weights, 2, "smoke detector*", "smoke alarm*");
+        weights(weights, LOW_WEIGHT, "squeak*", "creak*", "cosmetic*", "paint*", "scratch*", "wallpaper*",
+            "when you have time");
+        // Polska
+        weights(weights, URGENT_WEIGHT, "wyciek wody", "zalanie", "zalane", "zalało", "powódź", "pożar*", "pali się",
+            "dym", "dymu", "zapach gazu", "czuć gaz", "brak prądu", "brak ogrzewania", "brak wody", "pęknięta rura",
+            "pękła rura", "włamani*", "zwarci*", "iskry");
+        weights(weights, HIGH_WEIGHT, "wyciek*", "przeciek*", "cieknie", "kapie", "zatkan*", "odpływ*", "kanalizacj*",
+            "lodówk*", "lodówce", "zamrażark*", "kuchenk*", "piekarnik*", "winda", "windzie", "windy", "zamek", "zamka",
+            "zamku", "zimno", "brak ciepłej wody", "pleśń", "wilgo*");
+        weights(weights, 2, "czujnik dymu");
+        weights(weights, LOW_WEIGHT, "skrzypi*", "kosmetyczn*", "malowani*", "rysa", "tapet*", "kiedy będziecie mieli czas");
+        // Ukrainska
+        weights(weights, URGENT_WEIGHT, "протікання води", "витік води", "затоплен*", "затопило", "повінь", "пожеж*",
+            "горить", "дим", "диму", "запах газу", "пахне газом", "немає світла", "немає електрики", "немає опалення",
+            "немає води", "прорив труби", "лопнула труба", "проникнення", "коротке замикання", "іскри");
+        weights(weights, HIGH_WEIGHT, "протіка*", "витік", "капає", "засмічен*", "забит*", "каналізаці*", "холодильник*",
+            "морозильн*", "плита", "плиту", "плиті", "духовк*", "ліфт*", "замок", "замку", "холодно",
+            "немає гарячої води", "цвіл*", "пліснява", "вологіст*");
+        weights(weights, 2, "датчик диму", "пожежний датчик");
+        weights(weights, LOW_WEIGHT, "скрип*", "косметичн*", "фарбуван*", "подряпин*", "шпалер*", "коли буде час");
+
+        properties.getKeywords().forEach((keyword, weight) -> weights.put(keyword.toLowerCase(), weight));
+        weights.values().removeIf(weight -> weight == 0);
+        matcher = LabelMatcher.ofKeywords(weights);
+        timer = meterRegistry.timer("dftm.priority.inference");
+        log.info("Priority inference loaded with {} keywords", weights.size());
+    }
+
+    /**
+     * Prioritet för en beskrivning och dess översättningar. MEDIUM om bedömningen är avstängd
+     * eller inget nyckelord träffar.
+     */
+    public TaskPriority infer(String description, Map<Language, String> translations) {
+        if (!properties.isEnabled()) {
+            return TaskPriority.MEDIUM;
+        }
+        long start = System.nanoTime();
+        int highest = score(description);
+        int lowest = highest;
+        if (translations != null) {
+            for (String translation : translations.values()) {
+                int score = score(translation);
+                highest = Math.max(highest, score);
+                lowest = Math.min(lowest, score);
+            }
+        }
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return toPriority(highest > 0 ? highest : lowest);
+    }
+
+    int score(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        // Samma nyckelord flera gånger i texten räknas en gång
+        Set<String> seen = new HashSet<>();
+        int score = 0;
+        int strongest = 0;
+        for (LabelMatcher.Match<Integer> match : matcher.findAll(text)) {
+            if (seen.add(text.substring(match.start(), match.end()).toLowerCase())) {
+                score += match.value();
+                strongest = Math.max(strongest, match.value());
+            }
+        }
+        int urgent = properties.getUrgentThreshold();
+        return score >= urgent && strongest < urgent ? urgent - 1 : score;
+    }
+
+    private TaskPriority toPriority(int score) {
+        if (score >= properties.getUrgentThreshold()) {
+            return TaskPriority.URGENT;
+        }
+        if (score >= properties.getHighThreshold()) {
+            return TaskPriority.HIGH;
+        }
+        if (score <= properties.getLowThreshold()) {
+            return TaskPriority.LOW;
+        }
+        return TaskPriority.MEDIUM;
+    }
+
+    private static void weights(Map<String, Integer> weights, int weight, String... keywords) {
+        for (String keyword : keywords) {
+            weights.put(keyword, weight);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.dftm.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * Gzip-komprimerade RFC822-bytes för ett mejl, och tillbaka till ett MimeMessage
+ * som kan gå genom samma inläsning som ett mejl direkt från brevlådan.
+ */
+final class RawMessageCodec {
+    private static final Session SESSION = Session.getInstance(new Properties());
+
+    private RawMessageCodec() {
+    }
+
+    static byte[] compress(Message message) throws IOException, MessagingException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            message.writeTo(gzip);
+        }
+        return bytes.toByteArray();
+    }
+
+    static byte[] decompress(byte[] compressed) throws IOException {
+        try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return gzip.readAllBytes();
+        }
+    }
+
+    static MimeMessage toMessage(byte[] compressed) throws IOException, MessagingException {
+        return new MimeMessage(SESSION, new ByteArrayInputStream(decompress(compressed)));
+    }
+}
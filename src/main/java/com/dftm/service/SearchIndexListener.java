@@ -0,0 +1,75 @@
+package com.dftm.service;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+import com.dftm.model.Comment;
+import com.dftm.model.PendingTask;
+import com.dftm.model.SearchSourceType;
+import com.dftm.model.Task;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Uppdaterar sökindexet inkrementellt när uppgifter, felanmälningar och
+ * kommentarer sparas eller tas bort. Fel loggas men stoppar aldrig själva sparningen.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SearchIndexListener extends AbstractMongoEventListener<Object> {
+    private final SearchIndexService searchIndexService;
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Object> event) {
+        Object source = event.getSource();
+        try {
+            if (source instanceof Task task) {
+                searchIndexService.indexTask(task);
+            } else if (source instanceof PendingTask pendingTask) {
+                searchIndexService.indexPendingTask(pendingTask);
+            } else if (source instanceof Comment comment) {
+                searchIndexService.indexComment(comment);
+            }
+        } catch (Exception e) {
+            log.error("Failed to update search index for {}: {}", source.getClass().getSimpleName(), e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Object> event) {
+        Class<?> type = event.getType();
+        Document query = event.getSource();
+        try {
+            if (type == Comment.class && query.get("_id") == null && query.get("taskId") instanceof String taskId) {
+                searchIndexService.removeCommentsForTask(taskId);
+                return;
+            }
+            String id = idOf(query.get("_id"));
+            if (id == null) {
+                return;
+            }
+            if (type == Task.class) {
+                searchIndexService.removeSource(SearchSourceType.TASK, id);
+            } else if (type == PendingTask.class) {
+                searchIndexService.removeSource(SearchSourceType.PENDING_TASK, id);
+            } else if (type == Comment.class) {
+                searchIndexService.removeSource(SearchSourceType.COMMENT, id);
+            }
+        } catch (Exception e) {
+            log.error("Failed to remove deleted document from search index: {}", e.getMessage(), e);
+        }
+    }
+
+    private String idOf(Object id) {
+        if (id instanceof ObjectId objectId) {
+            return objectId.toHexString();
+        }
+        return id instanceof String value ? value : null;
+    }
+}
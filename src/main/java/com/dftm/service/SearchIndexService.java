@@ -0,0 +1,223 @@
+package com.dftm.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import com.dftm.dto.SearchHit;
+import com.dftm.model.Comment;
+import com.dftm.model.Language;
+import com.dftm.model.PendingTask;
+import com.dftm.model.SearchEntry;
+import com.dftm.model.SearchSourceType;
+import com.dftm.model.Task;
+import com.dftm.model.Translation;
+import com.dftm.repository.CommentRepository;
+import com.dftm.repository.PendingTaskRepository;
+import com.dftm.repository.SearchEntryRepository;
+import com.dftm.repository.TaskRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Håller sökindexet i searchEntries uppdaterat och besvarar fritextsökningar
+ * över uppgifter, felanmälningar och kommentarer på alla språk.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SearchIndexService {
+    private static final int SNIPPET_LENGTH = 200;
+
+    private final SearchEntryRepository searchEntryRepository;
+    private final TaskRepository taskRepository;
+    private final PendingTaskRepository pendingTaskRepository;
+    private final CommentRepository commentRepository;
+    private final TranslationService translationService;
+    private final MongoTemplate mongoTemplate;
+
+    public void indexTask(Task task) {
+        Map<String, Translation> references = fetchTranslations(
+            task.getTitleTranslationId(), task.getDescriptionTranslationId());
+        Map<Language, String> titles = collectTexts(task.getTitle(), task.getOriginalLanguage(),
+            task.getTitleTranslations(), references.get(task.getTitleTranslationId()));
+        Map<Language, String> descriptions = collectTexts(task.getDescription(), task.getOriginalLanguage(),
+            task.getDescriptionTranslations(), references.get(task.getDescriptionTranslationId()));
+        replaceEntries(SearchSourceType.TASK, task.getId(), task.getId(), titles, descriptions);
+    }
+
+    public void indexPendingTask(PendingTask pendingTask) {
+        Map<Language, String> descriptions = collectTexts(pendingTask.getDescription(),
+            pendingTask.getDescriptionLanguage(), pendingTask.getDescriptionTranslations(), null);
+
+        // Namn, adress och kontaktuppgifter är språkoberoende och indexeras på alla språk
+        String heading = Stream.of(pendingTask.getAddress(), pendingTask.getApartment(), pendingTask.getName(),
+                pendingTask.getEmail(), pendingTask.getPhone())
+            .filter(StringUtils::hasText)
+            .collect(Collectors.joining(" "));
+        Map<Language, String> headings = new EnumMap<>(Language.class);
+        if (!heading.isEmpty()) {
+            for (Language language : Language.values()) {
+                headings.put(language, heading);
+            }
+        }
+        replaceEntries(SearchSourceType.PENDING_TASK, pendingTask.getId(), null, headings, descriptions);
+    }
+
+    public void indexComment(Comment comment) {
+        Map<String, Translation> references = fetchTranslations(comment.getTextTranslationId());
+        Map<Language, String> texts = collectTexts(comment.getText(), comment.getOriginalLanguage(),
+            comment.getTextTranslations(), references.get(comment.getTextTranslationId()));
+        replaceEntries(SearchSourceType.COMMENT, comment.getId(), comment.getTaskId(), Map.of(), texts);
+    }
+
+    public void removeSource(SearchSourceType sourceType, String sourceId) {
+        searchEntryRepository.deleteBySourceTypeAndSourceId(sourceType, sourceId);
+    }
+
+    public void removeCommentsForTask(String taskId) {
+        searchEntryRepository.deleteBySourceTypeAndTaskId(SearchSourceType.COMMENT, taskId);
+    }
+
+    /**
+     * Bygger om hela indexet, t.ex. efter första driftsättningen
+     *
+     * @return Antal indexerade källor
+     */
+    public int reindexAll() {
+        log.info("Rebuilding search index");
+        searchEntryRepository.deleteAll();
+        int count = 0;
+        for (Task task : taskRepository.findAll()) {
+            indexTask(task);
+            count++;
+        }
+        for (PendingTask pendingTask : pendingTaskRepository.findAll()) {
+            indexPendingTask(pendingTask);
+            count++;
+        }
+        for (Comment comment : commentRepository.findAll()) {
+            indexComment(comment);
+            count++;
+        }
+        log.info("Search index rebuilt with {} sources", count);
+        return count;
+    }
+
+    /**
+     * Söker i alla språkversioner och rankar på relevans. Frågan stemmas med
+     * användarens språk och varje källa returneras en gång med sin bästa träff.
+     *
+     * @param queryText Söktext
+     * @param language Språket som frågan skrivits på
+     * @param sourceTypes Källtyper att söka i, tomt betyder alla
+     * @param limit Max antal träffar
+     * @return Träffar sorterade på relevans
+     */
+    public List<SearchHit> search(String queryText, Language language, Set<SearchSourceType> sourceTypes, int limit) {
+        TextQuery query = TextQuery.queryText(
+                TextCriteria.forLanguage(language.getTextSearchLanguage()).matching(queryText))
+            .includeScore()
+            .sortByScore();
+        if (sourceTypes != null && !sourceTypes.isEmpty()) {
+            query.addCriteria(Criteria.where("sourceType").in(sourceTypes));
+        }
+        query.limit(limit * Language.values().length);
+
+        Map<String, SearchHit> hits = new LinkedHashMap<>();
+        for (SearchEntry entry : mongoTemplate.find(query, SearchEntry.class)) {
+            String key = entry.getSourceType() + ":" + entry.getSourceId();
+            if (hits.containsKey(key)) {
+                continue;
+            }
+            hits.put(key, toHit(entry));
+            if (hits.size() == limit) {
+                break;
+            }
+        }
+        return new ArrayList<>(hits.values());
+    }
+
+    private void replaceEntries(SearchSourceType sourceType, String sourceId, String taskId,
+                                Map<Language, String> titles, Map<Language, String> texts) {
+        Set<Language> languages = EnumSet.noneOf(Language.class);
+        languages.addAll(titles.keySet());
+        languages.addAll(texts.keySet());
+
+        LocalDateTime now = LocalDateTime.now();
+        List<SearchEntry> entries = languages.stream()
+            .map(language -> SearchEntry.builder()
+                .id(sourceType + ":" + sourceId + ":" + language.name())
+                .sourceType(sourceType)
+                .sourceId(sourceId)
+                .taskId(taskId)
+                .entryLanguage(language)
+                .searchLanguage(language.getTextSearchLanguage())
+                .title(titles.get(language))
+                .text(texts.get(language))
+                .indexedAt(now)
+                .build())
+            .collect(Collectors.toList());
+
+        searchEntryRepository.deleteBySourceTypeAndSourceId(sourceType, sourceId);
+        searchEntryRepository.saveAll(entries);
+        log.debug("Indexed {} {} in {} languages", sourceType, sourceId, entries.size());
+    }
+
+    private Map<String, Translation> fetchTranslations(String... translationIds) {
+        Collection<String> ids = Stream.of(translationIds).filter(Objects::nonNull).collect(Collectors.toList());
+        return translationService.getTranslationsById(ids);
+    }
+
+    /**
+     * Samlar texten per språk från översättningsdokument, inbäddade översättningar och originalet
+     */
+    private Map<Language, String> collectTexts(String original, Language originalLanguage,
+                                               Map<Language, String> translations, Translation reference) {
+        Map<Language, String> texts = new EnumMap<>(Language.class);
+        if (reference != null) {
+            texts.putAll(reference.getTranslations());
+        }
+        if (translations != null) {
+            texts.putAll(translations);
+        }
+        if (StringUtils.hasText(original)) {
+            texts.put(originalLanguage != null ? originalLanguage : Language.SV, original);
+        }
+        texts.values().removeIf(text -> !StringUtils.hasText(text));
+        return texts;
+    }
+
+    private SearchHit toHit(SearchEntry entry) {
+        String text = entry.getText();
+        String snippet = text != null && text.length() > SNIPPET_LENGTH
+            ? text.substring(0, SNIPPET_LENGTH) + "..."
+            : text;
+        return SearchHit.builder()
+            .sourceType(entry.getSourceType())
+            .sourceId(entry.getSourceId())
+            .taskId(entry.getTaskId())
+            .language(entry.getEntryLanguage())
+            .title(entry.getTitle())
+            .snippet(snippet)
+            .score(entry.getScore() != null ? entry.getScore() : 0f)
+            .build();
+    }
+}
@@ -0,0 +1,35 @@
+package com.dftm.service;
+
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+import com.dftm.model.PendingTask;
+import com.dftm.model.Task;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Kastar den cachade dashboardstatistiken så fort en uppgift eller felanmälan sparas eller tas bort
+ */
+@Component
+@RequiredArgsConstructor
+public class StatisticsCacheListener extends AbstractMongoEventListener<Object> {
+    private final StatisticsService statisticsService;
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Object> event) {
+        if (event.getSource() instanceof Task || event.getSource() instanceof PendingTask) {
+            statisticsService.invalidate();
+        }
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Object> event) {
+        Class<?> type = event.getType();
+        if (type == Task.class || type == PendingTask.class) {
+            statisticsService.invalidate();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.dftm.service;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.LiteralOperators;
+import org.springframework.data.mongodb.core.aggregation.UnionWithOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+
+import com.dftm.dto.DashboardStatistics;
+import com.dftm.model.TaskStatus;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Räknar fram nyckeltal för dashboarden med en enda aggregering över tasks
+ * och pendingTasks. Resultatet cachas kort och kastas när uppgifter ändras.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StatisticsService {
+    private static final String UNASSIGNED = "UNASSIGNED";
+
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+    private final AtomicReference<CachedStatistics> cache = new AtomicReference<>();
+    // Ökas vid varje invalidering. En beräkning som startade före en invalidering
+    // bär den gamla generationen och räknas därför aldrig som träff.
+    private final AtomicLong generation = new AtomicLong();
+
+    @Value("${dashboard.statistics.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    public DashboardStatistics getStatistics() {
+        long currentGeneration = generation.get();
+        CachedStatistics cached = cache.get();
+        if (cached != null && cached.generation() == currentGeneration && System.nanoTime() < cached.expiresAt()) {
+            meterRegistry.counter("cache.gets", "cache", "dashboardStatistics", "result", "hit").increment();
+            return cached.statistics();
+        }
+        meterRegistry.counter("cache.gets", "cache", "dashboardStatistics", "result", "miss").increment();
+
+        DashboardStatistics statistics = computeStatistics();
+        CachedStatistics computed = new CachedStatistics(statistics,
+            System.nanoTime() + TimeUnit.SECONDS.toNanos(ttlSeconds), currentGeneration);
+        // Skriv inte över ett resultat från en nyare generation med ett äldre
+        cache.updateAndGet(existing -> existing != null && existing.generation() > currentGeneration ? existing : computed);
+        return statistics;
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        cache.set(null);
+    }
+
+    private DashboardStatistics computeStatistics() {
+        log.debug("Computing dashboard statistics");
+        Criteria isTask = Criteria.where("kind").is("task");
+        Criteria isPending = Criteria.where("kind").is("pending");
+
+        Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation.match(Criteria.where("archived").is(false)),
+            Aggregation.project("status", "priority", "assignedTo", "dueDate")
+                .and(LiteralOperators.Literal.asLiteral("task")).as("kind"),
+            UnionWithOperation.unionWith("pendingTasks").pipeline(
+                Aggregation.project("status").and(LiteralOperators.Literal.asLiteral("pending")).as("kind")),
+            Aggregation.facet(Aggregation.match(isTask), Aggregation.count().as("count")).as("total")
+                .and(Aggregation.match(isTask), Aggregation.group("status").count().as("count")).as("byStatus")
+                .and(Aggregation.match(isTask), Aggregation.group("priority").count().as("count")).as("byPriority")
+                .and(Aggregation.match(isTask), Aggregation.group("assignedTo").count().as("count")).as("byAssignee")
+                .and(Aggregation.match(new Criteria().andOperator(isTask,
+                        Criteria.where("dueDate").lt(new Date()),
+                        Criteria.where("status").nin(TaskStatus.COMPLETED.name(), TaskStatus.NOT_FEASIBLE.name()))),
+                    Aggregation.count().as("count")).as("overdue")
+                .and(Aggregation.match(isPending), Aggregation.group("status").count().as("count")).as("pendingByStatus")
+        );
+
+        Document result = mongoTemplate.aggregate(aggregation, "tasks", Document.class).getUniqueMappedResult();
+        if (result == null) {
+            result = new Document();
+        }
+
+        return DashboardStatistics.builder()
+            .totalTasks(singleCount(result, "total"))
+            .overdueTasks(singleCount(result, "overdue"))
+            .tasksByStatus(groupCounts(result, "byStatus"))
+            .tasksByPriority(groupCounts(result, "byPriority"))
+            .tasksByAssignee(groupCounts(result, "byAssignee"))
+            .pendingTasksByStatus(groupCounts(result, "pendingByStatus"))
+            .generatedAt(LocalDateTime.now())
+            .build();
+    }
+
+    private long singleCount(Document result, String facet) {
+        List<Document> rows = result.getList(facet, Document.class, List.of());
+        return rows.isEmpty() ? 0 : rows.get(0).get("count", Number.class).longValue();
+    }
+
+    private Map<String, Long> groupCounts(Document result, String facet) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Document row : result.getList(facet, Document.class, List.of())) {
+            Object key = row.get("_id");
+            String name = key == null || key.toString().isEmpty() ? UNASSIGNED : key.toString();
+            counts.merge(name, row.get("count", Number.class).longValue(), Long::sum);
+        }
+        return counts;
+    }
+
+    private record CachedStatistics(DashboardStatistics statistics, long expiresAt, long generation) {
+    }
+}
@@ -1,18 +1,46 @@
 package com.dftm.service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
+import org.bson.Document;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
 
+import com.dftm.dto.BulkItemResult;
+import com.dftm.dto.BulkOperationResult;
+import com.dftm.dto.BulkTaskUpdateRequest;
+import com.dftm.dto.TaskDelta;
+import com.dftm.dto.TaskFilter;
 import com.dftm.dto.TaskRequest;
+import com.dftm.dto.TaskSummaryView;
+import com.dftm.exception.BadRequestException;
+import com.dftm.exception.ConflictException;
 import com.dftm.exception.ResourceNotFoundException;
 import com.dftm.model.Language;
 import com.dftm.model.Task;
 import com.dftm.model.TaskPriority;
 import com.dftm.model.TaskStatus;
+import com.dftm.model.TaskTombstone;
 import com.dftm.model.Translation;
 import com.dftm.repository.TaskRepository;
+import com.dftm.repository.TaskTombstoneRepository;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -21,8 +49,21 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 @Slf4j
 public class TaskService {
+    // Prioritet och status lagras som namn och skulle sorteras alfabetiskt, inte i rangordning
+    private static final Set<String> SORTABLE_FIELDS = Set.of(
+        "dueDate", "createdAt", "updatedAt", "title");
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_BULK_SIZE = 1000;
+    // Skrivningar som stämplats strax före förra synken kan ha sparats efter den
+    private static final Duration DELTA_OVERLAP = Duration.ofSeconds(5);
+    private static final Duration TOMBSTONE_RETENTION = Duration.ofDays(30);
+
     private final TaskRepository taskRepository;
+    private final TaskTombstoneRepository taskTombstoneRepository;
     private final TranslationService translationService;
+    private final StatisticsService statisticsService;
+    private final ChangeFeedService changeFeedService;
+    private final MongoTemplate mongoTemplate;
 
     public Task createTask(Task task) {
         log.debug("Creating new task");
@@ -76,22 +117,27 @@ public class TaskService {
         existingTask.setPriority(request.getPriority());
         existingTask.setDueDate(request.getDueDate());
         existingTask.setUpdatedAt(LocalDateTime.now());
-        return taskRepository.save(existingTask);
+        try {
+            // Hela dokumentet skrivs om så att sökindexet uppdateras, versionen skyddar mot tappade ändringar
+            return taskRepository.save(existingTask);
+        } catch (OptimisticLockingFailureException e) {
+            throw new ConflictException("Task was modified concurrently: " + taskId);
+        }
     }
 
     public void deleteTask(String id) {
         if (!taskRepository.existsById(id)) {
             throw new ResourceNotFoundException("Task not found with id: " + id);
         }
+        // Lämna ett spår så att klienter som synkar med ?since= ser borttagningen
+        taskTombstoneRepository.save(new TaskTombstone(id, LocalDateTime.now()));
         taskRepository.deleteById(id);
     }
 
     public Task assignTask(String id, String assignedTo, String assigner) {
-        Task task = getTask(id);
-        task.setAssignedTo(assignedTo);
-        task.setAssigner(assigner != null ? assigner : "admin@dftm.com"); // Default assigner
-        task.setUpdatedAt(LocalDateTime.now());
-        return taskRepository.save(task);
+        return applyUpdate(id, new Update()
+            .set("assignedTo", assignedTo)
+            .set("assigner", assigner != null ? assigner : "admin@dftm.com")); // Default assigner
     }
 
     public List<Task> getTasksByAssignedTo(String assignedTo) {
@@ -107,25 +153,16 @@ public class TaskService {
     }
 
     public Task archiveTask(String taskId) {
-        Task task = getTaskById(taskId);
-        task.setArchived(true);
-        task.setUpdatedAt(LocalDateTime.now());
-        return taskRepository.save(task);
+        return applyUpdate(taskId, new Update().set("archived", true));
     }
 
     public Task approveTask(String taskId) {
         log.debug("Approving task with ID: {}", taskId);
-        Task task = getTaskById(taskId);
-        task.setApproved(true);
-        task.setUpdatedAt(LocalDateTime.now());
-        return taskRepository.save(task);
+        return applyUpdate(taskId, new Update().set("approved", true));
     }
 
     public Task updateTaskPriority(String taskId, TaskPriority priority) {
-        Task task = getTaskById(taskId);
-        task.setPriority(priority);
-        task.setUpdatedAt(LocalDateTime.now());
-        return taskRepository.save(task);
+        return applyUpdate(taskId, new Update().set("priority", priority));
     }
 
     public boolean isAssignedToUser(String taskId, String userId) {
@@ -179,20 +216,263 @@ public class TaskService {
     }
 
     public Task updateTaskStatus(String taskId, TaskStatus status) {
-        Task task = taskRepository.findById(taskId)
-            .orElseThrow(() -> new RuntimeException("Task not found"));
-        task.setStatus(status);
-        return taskRepository.save(task);
+        return applyUpdate(taskId, new Update().set("status", status));
     }
 
     public Task unarchiveTask(String taskId) {
-        Task task = taskRepository.findById(taskId)
-            .orElseThrow(() -> new RuntimeException("Task not found"));
-        task.setArchived(false);
-        return taskRepository.save(task);
+        return applyUpdate(taskId, new Update().set("archived", false));
+    }
+
+    /**
+     * Sätter bara de ändrade fälten med ett enda findAndModify i stället för
+     * att läsa och skriva om hela dokumentet. Versionen räknas upp så att en
+     * samtidig fullständig sparning upptäcker ändringen.
+     *
+     * @return Uppgiften efter uppdateringen
+     */
+    private Task applyUpdate(String taskId, Update update) {
+        stamp(update);
+        Task task = mongoTemplate.findAndModify(
+            Query.query(Criteria.where("_id").is(taskId)),
+            update,
+            FindAndModifyOptions.options().returnNew(true),
+            Task.class);
+        if (task == null) {
+            throw new ResourceNotFoundException("Task not found with id: " + taskId);
+        }
+        statisticsService.invalidate();
+        changeFeedService.publishLocal(ChangeFeedService.TASKS, "UPDATE", taskId, task);
+        return task;
+    }
+
+    /**
+     * Tillämpar samma ändringar på många uppgifter med ett enda updateMulti.
+     * Bara om inte alla id:n träffades görs ett extra anrop för att ta reda på vilka som saknas.
+     *
+     * @param request Uppgifternas id:n och ändringarna
+     * @param assigner Användaren som gör ändringen, sparas vid tilldelning
+     * @return Resultat per id
+     */
+    public BulkOperationResult bulkUpdateTasks(BulkTaskUpdateRequest request, String assigner) {
+        if (request.getTaskIds() == null || request.getTaskIds().isEmpty()) {
+            throw new BadRequestException("No task ids given");
+        }
+        if (request.getTaskIds().size() > MAX_BULK_SIZE) {
+            throw new BadRequestException("At most " + MAX_BULK_SIZE + " tasks can be updated at once");
+        }
+
+        Update update = new Update();
+        if (request.getStatus() != null) {
+            update.set("status", request.getStatus());
+        }
+        if (request.getPriority() != null) {
+            update.set("priority", request.getPriority());
+        }
+        if (request.getAssignedTo() != null) {
+            update.set("assignedTo", request.getAssignedTo());
+            update.set("assigner", assigner);
+        }
+        if (request.getArchived() != null) {
+            update.set("archived", request.getArchived());
+        }
+        if (request.getApproved() != null) {
+            update.set("approved", request.getApproved());
+        }
+        if (update.getUpdateObject().isEmpty()) {
+            throw new BadRequestException("No changes given");
+        }
+        stamp(update);
+
+        List<String> taskIds = new ArrayList<>(new LinkedHashSet<>(request.getTaskIds()));
+        log.debug("Bulk updating {} tasks with {}", taskIds.size(), update.getUpdateObject());
+        long matched = mongoTemplate.updateMulti(
+            Query.query(Criteria.where("_id").in(taskIds)), update, Task.class).getMatchedCount();
+        statisticsService.invalidate();
+
+        Set<String> found = matched == taskIds.size() ? new HashSet<>(taskIds) : findExistingIds(taskIds);
+        changeFeedService.publishLocal(ChangeFeedService.TASKS, "UPDATE", found);
+        return BulkOperationResult.of(taskIds.stream()
+            .map(id -> found.contains(id) ? BulkItemResult.ok(id) : BulkItemResult.failed(id, "Task not found"))
+            .collect(Collectors.toList()));
+    }
+
+    private Set<String> findExistingIds(List<String> taskIds) {
+        Query query = Query.query(Criteria.where("_id").in(taskIds));
+        query.fields().include("_id");
+        return mongoTemplate.find(query, Task.class).stream()
+            .map(Task::getId)
+            .collect(Collectors.toSet());
+    }
+
+    private void stamp(Update update) {
+        update.set("updatedAt", LocalDateTime.now()).inc("version", 1);
     }
 
     public List<Task> getTasksByAssignedToAndArchived(String userId, Boolean archived) {
         return taskRepository.findByArchivedAndAssignedTo(archived, userId);
     }
+
+    public List<TaskSummaryView> getAllTaskSummaries(Language language) {
+        log.debug("Fetching all task summaries, language: {}", language);
+        return localizeSummaries(taskRepository.findAllSummaries(), language);
+    }
+
+    public List<TaskSummaryView> getNonArchivedTaskSummaries(Language language) {
+        log.debug("Fetching non-archived task summaries, language: {}", language);
+        return localizeSummaries(taskRepository.findSummariesByArchived(false), language);
+    }
+
+    public List<TaskSummaryView> getTaskSummariesByAssignedToAndArchived(String userId, Boolean archived, Language language) {
+        return localizeSummaries(taskRepository.findSummariesByArchivedAndAssignedTo(archived, userId), language);
+    }
+
+    public List<TaskSummaryView> getTaskSummariesByStatus(TaskStatus status, Language language) {
+        return localizeSummaries(taskRepository.findSummariesByStatus(status), language);
+    }
+
+    public List<TaskSummaryView> searchTasks(TaskFilter filter, Language language) {
+        log.debug("Searching tasks with filter: {}", filter);
+        validateFilter(filter);
+        return localizeSummaries(taskRepository.findSummaries(filter), language);
+    }
+
+    /**
+     * Versionen av en uppgiftslista, används som ETag. Bygger på antal uppgifter och
+     * senaste updatedAt i listan samt, vid översättning, senast ändrade översättning,
+     * så att listan inte behöver läsas för att avgöra om klienten redan har den.
+     */
+    public String getTaskListVersion(Boolean archived, Language language) {
+        return computeListVersion(allTasksScope(archived), language);
+    }
+
+    public String getTaskListVersionByAssignedTo(String userId, Boolean archived, Language language) {
+        return computeListVersion(assignedTasksScope(userId, archived), language);
+    }
+
+    public TaskDelta getTaskDelta(LocalDateTime since, Boolean archived, Language language) {
+        return computeDelta(allTasksScope(archived), since, language);
+    }
+
+    public TaskDelta getTaskDeltaByAssignedTo(String userId, Boolean archived, LocalDateTime since, Language language) {
+        return computeDelta(assignedTasksScope(userId, archived), since, language);
+    }
+
+    // Samma urval som getAllTaskSummaries/getNonArchivedTaskSummaries
+    private Criteria allTasksScope(Boolean archived) {
+        return Boolean.TRUE.equals(archived) ? new Criteria() : Criteria.where("archived").is(false);
+    }
+
+    // Samma urval som getTaskSummariesByAssignedToAndArchived
+    private Criteria assignedTasksScope(String userId, Boolean archived) {
+        return Criteria.where("archived").is(archived).and("assignedTo").is(userId);
+    }
+
+    private String computeListVersion(Criteria scope, Language language) {
+        Document marks = mongoTemplate.aggregate(
+                Aggregation.newAggregation(
+                    Aggregation.match(scope),
+                    Aggregation.group().count().as("count").max("updatedAt").as("lastUpdated")),
+                Task.class, Document.class)
+            .getUniqueMappedResult();
+
+        StringBuilder version = new StringBuilder();
+        if (marks != null) {
+            version.append(marks.get("count")).append(':').append(toMillis(marks.getDate("lastUpdated")));
+        }
+        if (language != null) {
+            version.append(':').append(language).append(':').append(translationService.getLastUpdated());
+        }
+        return DigestUtils.md5DigestAsHex(version.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private long toMillis(Date date) {
+        return date != null ? date.getTime() : 0;
+    }
+
+    /**
+     * Uppgifter som ändrats sedan since inom urvalet, samt id:n som ska bort hos klienten:
+     * borttagna uppgifter och uppgifter som ändrats så att de inte längre hör till urvalet
+     * (t.ex. arkiverade eller tilldelade någon annan).
+     */
+    private TaskDelta computeDelta(Criteria scope, LocalDateTime since, Language language) {
+        LocalDateTime serverTime = LocalDateTime.now();
+        if (since.isBefore(serverTime.minus(TOMBSTONE_RETENTION))) {
+            return TaskDelta.builder()
+                .changed(List.of())
+                .removedIds(List.of())
+                .serverTime(serverTime)
+                .resyncRequired(true)
+                .build();
+        }
+
+        LocalDateTime from = since.minus(DELTA_OVERLAP);
+        List<TaskSummaryView> changed = localizeSummaries(taskRepository.findSummariesUpdatedAfter(scope, from), language);
+
+        List<String> removedIds = new ArrayList<>(
+            taskRepository.findIdsUpdatedAfter(new Criteria().norOperator(scope), from));
+        taskTombstoneRepository.findByDeletedAtAfter(from)
+            .forEach(tombstone -> removedIds.add(tombstone.getTaskId()));
+
+        log.debug("Task delta since {}: {} changed, {} removed", since, changed.size(), removedIds.size());
+        return TaskDelta.builder()
+            .changed(changed)
+            .removedIds(removedIds)
+            .serverTime(serverTime)
+            .resyncRequired(false)
+            .build();
+    }
+
+    private void validateFilter(TaskFilter filter) {
+        if (filter.getSort() != null && !SORTABLE_FIELDS.contains(filter.getSort())) {
+            throw new BadRequestException("Cannot sort tasks by: " + filter.getSort());
+        }
+        if (!"asc".equalsIgnoreCase(filter.getDirection()) && !"desc".equalsIgnoreCase(filter.getDirection())) {
+            throw new BadRequestException("Invalid sort direction: " + filter.getDirection());
+        }
+        if (filter.getSize() != null && (filter.getSize() < 1 || filter.getSize() > MAX_PAGE_SIZE)) {
+            throw new BadRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (filter.getPage() != null && filter.getPage() < 0) {
+            throw new BadRequestException("Page must not be negative");
+        }
+    }
+
+    /**
+     * Ersätter titel och beskrivning med texter på önskat språk. Alla
+     * översättningar för listan hämtas i ett enda anrop i stället för två per uppgift.
+     */
+    private List<TaskSummaryView> localizeSummaries(List<TaskSummaryView> summaries, Language targetLanguage) {
+        if (targetLanguage == null) {
+            return summaries;
+        }
+
+        Set<String> translationIds = new HashSet<>();
+        for (TaskSummaryView summary : summaries) {
+            if (summary.getOriginalLanguage() == targetLanguage) {
+                continue;
+            }
+            if (summary.getTitleTranslationId() != null) {
+                translationIds.add(summary.getTitleTranslationId());
+            }
+            if (summary.getDescriptionTranslationId() != null) {
+                translationIds.add(summary.getDescriptionTranslationId());
+            }
+        }
+
+        Map<String, Translation> translations = translationService.getTranslationsById(translationIds);
+        for (TaskSummaryView summary : summaries) {
+            if (summary.getOriginalLanguage() == targetLanguage) {
+                continue;
+            }
+            Translation title = translations.get(summary.getTitleTranslationId());
+            if (title != null) {
+                summary.setTitle(translationService.resolveText(title, targetLanguage));
+            }
+            Translation description = translations.get(summary.getDescriptionTranslationId());
+            if (description != null) {
+                summary.setDescription(translationService.resolveText(description, targetLanguage));
+            }
+        }
+        return summaries;
+    }
 } 
\ No newline at end of file
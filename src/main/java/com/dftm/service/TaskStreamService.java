@@ -0,0 +1,130 @@
+package com.dftm.service;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.stereotype.Service;
+
+import com.dftm.dto.TaskSummaryView;
+import com.dftm.model.Comment;
+import com.dftm.model.Language;
+import com.dftm.model.Translation;
+import com.dftm.repository.ReactiveCommentRepository;
+import com.dftm.repository.ReactiveTaskRepository;
+import com.dftm.repository.ReactiveTranslationRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Strömmande läsning av uppgifter och kommentarer via den reaktiva drivrutinen.
+ * Översättningar hämtas per batch med ett findAllById och kopplas på utan att
+ * någon tråd blockeras i väntan på databasen.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TaskStreamService {
+    private static final int TRANSLATION_BATCH_SIZE = 200;
+
+    private final ReactiveTaskRepository reactiveTaskRepository;
+    private final ReactiveCommentRepository reactiveCommentRepository;
+    private final ReactiveTranslationRepository reactiveTranslationRepository;
+    private final TranslationService translationService;
+
+    public Flux<TaskSummaryView> streamTaskSummaries(boolean includeArchived, Language language) {
+        log.debug("Streaming task summaries, includeArchived: {}, language: {}", includeArchived, language);
+        Flux<TaskSummaryView> summaries = includeArchived
+            ? reactiveTaskRepository.findAllSummaries()
+            : reactiveTaskRepository.findSummariesByArchived(false);
+        return localizeSummaries(summaries, language);
+    }
+
+    public Flux<TaskSummaryView> streamTaskSummariesByAssignedTo(String userId, boolean archived, Language language) {
+        log.debug("Streaming task summaries for user: {}, archived: {}, language: {}", userId, archived, language);
+        return localizeSummaries(reactiveTaskRepository.findSummariesByArchivedAndAssignedTo(archived, userId), language);
+    }
+
+    public Flux<Comment> streamTranslatedComments(String taskId, Language language) {
+        return reactiveCommentRepository.findByTaskId(taskId)
+            .buffer(TRANSLATION_BATCH_SIZE)
+            .concatMap(batch -> withTranslations(batch, comment -> {
+                Set<String> ids = new HashSet<>();
+                if (comment.getTextTranslationId() != null && !comment.getTextTranslationId().isEmpty()) {
+                    ids.add(comment.getTextTranslationId());
+                }
+                return ids;
+            }).flatMapMany(translations -> Flux.fromIterable(batch)
+                .map(comment -> translateComment(comment, translations.get(comment.getTextTranslationId()), language))));
+    }
+
+    private Flux<TaskSummaryView> localizeSummaries(Flux<TaskSummaryView> summaries, Language language) {
+        if (language == null) {
+            return summaries;
+        }
+        return summaries
+            .buffer(TRANSLATION_BATCH_SIZE)
+            .concatMap(batch -> withTranslations(batch, summary -> {
+                Set<String> ids = new HashSet<>();
+                if (summary.getOriginalLanguage() != language) {
+                    if (summary.getTitleTranslationId() != null) {
+                        ids.add(summary.getTitleTranslationId());
+                    }
+                    if (summary.getDescriptionTranslationId() != null) {
+                        ids.add(summary.getDescriptionTranslationId());
+                    }
+                }
+                return ids;
+            }).flatMapMany(translations -> Flux.fromIterable(batch)
+                .doOnNext(summary -> applyTranslations(summary, translations, language))));
+    }
+
+    private void applyTranslations(TaskSummaryView summary, Map<String, Translation> translations, Language language) {
+        if (summary.getOriginalLanguage() == language) {
+            return;
+        }
+        Translation title = translations.get(summary.getTitleTranslationId());
+        if (title != null) {
+            summary.setTitle(translationService.resolveText(title, language));
+        }
+        Translation description = translations.get(summary.getDescriptionTranslationId());
+        if (description != null) {
+            summary.setDescription(translationService.resolveText(description, language));
+        }
+    }
+
+    // Samma kopia som CommentService.getTranslatedComments gör, utan att ändra originalet
+    private Comment translateComment(Comment comment, Translation translation, Language language) {
+        Comment translatedComment = new Comment();
+        translatedComment.setId(comment.getId());
+        translatedComment.setTaskId(comment.getTaskId());
+        translatedComment.setUserId(comment.getUserId());
+        translatedComment.setUserName(comment.getUserName());
+        translatedComment.setCreatedAt(comment.getCreatedAt());
+        translatedComment.setUpdatedAt(comment.getUpdatedAt());
+        translatedComment.setOriginalLanguage(comment.getOriginalLanguage());
+        translatedComment.setText(translation != null
+            ? translationService.resolveText(translation, language)
+            : comment.getText());
+        return translatedComment;
+    }
+
+    /**
+     * Hämtar alla översättningar som en batch refererar till i ett enda anrop
+     */
+    private <T> Mono<Map<String, Translation>> withTranslations(List<T> batch, Function<T, Set<String>> translationIds) {
+        Set<String> ids = new HashSet<>();
+        batch.forEach(item -> ids.addAll(translationIds.apply(item)));
+        if (ids.isEmpty()) {
+            // Inte Map.of(), den tillåter inte get(null)
+            return Mono.just(Collections.emptyMap());
+        }
+        return reactiveTranslationRepository.findAllById(ids).collectMap(Translation::getId);
+    }
+}
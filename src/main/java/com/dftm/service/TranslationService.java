@@ -1,6 +1,7 @@
 package com.dftm.service;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -142,6 +143,38 @@ public class TranslationService {
         Translation translation = translationRepository.findById(translationId)
                 .orElseThrow(() -> new RuntimeException("Translation not found"));
 
+        return resolveText(translation, targetLanguage);
+    }
+
+    /**
+     * Hämtar flera översättningar i ett enda databasanrop
+     *
+     * @param translationIds ID:n för översättningarna
+     * @return Översättningarna indexerade på ID
+     */
+    public Map<String, Translation> getTranslationsById(Collection<String> translationIds) {
+        Map<String, Translation> result = new HashMap<>();
+        if (translationIds.isEmpty()) {
+            return result;
+        }
+        translationRepository.findAllById(translationIds)
+                .forEach(translation -> result.put(translation.getId(), translation));
+        return result;
+    }
+
+    /**
+     * Senaste tidpunkten då någon översättning skapades eller ändrades
+     */
+    public LocalDateTime getLastUpdated() {
+        return translationRepository.findFirstByOrderByUpdatedAtDesc()
+                .map(Translation::getUpdatedAt)
+                .orElse(null);
+    }
+
+    /**
+     * Väljer texten för målspråket, eller originaltexten om översättning saknas
+     */
+    public String resolveText(Translation translation, Language targetLanguage) {
         if (targetLanguage == translation.getOriginalLanguage()) {
             return translation.getOriginalText();
         }
@@ -3,6 +3,7 @@ package com.dftm.service;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.regex.Pattern;
 
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -10,6 +11,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import com.dftm.dto.UpdateUserRequest;
+import com.dftm.dto.UserListView;
 import com.dftm.exception.EmailAlreadyExistsException;
 import com.dftm.exception.UnauthorizedAccessException;
 import com.dftm.model.Language;
@@ -45,9 +47,9 @@ public class UserService {
                 .orElse(null);
     }
 
-    public List<User> getAllUsers() {
+    public List<UserListView> getAllUsers() {
         log.debug("Fetching all users");
-        return userRepository.findAll();
+        return userRepository.findAllListViews();
     }
 
     public User getUserById(String userId) {
@@ -56,24 +58,30 @@ public class UserService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
     }
 
-    public List<User> getUsersByLanguage(Language language) {
+    public UserListView getUserViewById(String userId) {
+        log.debug("Fetching user view with ID: {}", userId);
+        return userRepository.findListViewById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+
+    public List<UserListView> getUsersByLanguage(Language language) {
         log.debug("Fetching users with language: {}", language);
-        return userRepository.findByPreferredLanguage(language);
+        return userRepository.findListViewsByPreferredLanguage(language);
     }
 
-    public List<User> getActiveUsers() {
+    public List<UserListView> getActiveUsers() {
         log.debug("Fetching active users");
-        return userRepository.findByActiveTrue();
+        return userRepository.findActiveListViews();
     }
 
-    public List<User> searchUsersByName(String searchTerm) {
+    public List<UserListView> searchUsersByName(String searchTerm) {
         log.debug("Fetching users with name containing: {}", searchTerm);
-        return userRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(searchTerm, searchTerm);
+        return userRepository.findListViewsByNameMatching(Pattern.quote(searchTerm));
     }
 
-    public List<User> getUsersByRole(Role role) {
+    public List<UserListView> getUsersByRole(Role role) {
         log.debug("Fetching users with role: {}", role);
-        return userRepository.findByRole(role);
+        return userRepository.findListViewsByRole(role);
     }
 
     public User updateUser(String userId, UpdateUserRequest request) {
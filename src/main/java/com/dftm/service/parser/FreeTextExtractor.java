@@ -0,0 +1,79 @@
+package com.dftm.service.parser;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Heuristik för mejl som hyresgäster skriver själva, utan formulärets etiketter.
+ * Plockar ut e-post, telefon, adress och lägenhetsnummer med reguljära uttryck;
+ * resten av texten blir beskrivningen.
+ */
+final class FreeTextExtractor {
+    private static final Pattern EMAIL = Pattern.compile("[\\w.+-]+@[\\w-]+(?:\\.[\\w-]+)+");
+    private static final Pattern PHONE = Pattern.compile("(?<![\\w+])\\+?\\d[\\d \\t-]{5,16}\\d(?!\\w)");
+    // Svenska gatunamn är sammansatta ("Storgatan"), engelska skrivs med ett ord före ("Baker Street")
+    private static final Pattern ADDRESS = Pattern.compile(
+        "(?iu)\\b(?:[\\p{L}-]++\\s++(?:street|road|avenue)|[\\p{L}-]*(?:gatan|gata|vägen|väg|gränd|torget|torg|allén|allé|"
+            + "backen|backe|stigen|platsen|street|road|avenue|ulica|вулиця))\\s+\\d+\\s?[a-z]?\\b");
+    private static final Pattern APARTMENT = Pattern.compile(
+        "(?iu)\\b(?:lgh|lägenhet(?:snummer)?|apt|apartment|mieszkanie|квартира|кв)\\.?\\s*(?:nr\\.?|no\\.?|#)?\\s*(\\d{1,5})\\b");
+    private static final int MIN_PHONE_DIGITS = 7;
+    private static final int MAX_PHONE_DIGITS = 15;
+
+    private FreeTextExtractor() {
+    }
+
+    /**
+     * Fyller bara i fält som fortfarande är tomma
+     */
+    static void fillMissing(ParsedFaultReport report, String text) {
+        if (report.getEmail().isEmpty()) {
+            report.setEmail(find(EMAIL, text, 0));
+        }
+        if (report.getPhone().isEmpty()) {
+            report.setPhone(findPhone(text));
+        }
+        if (report.getAddress().isEmpty()) {
+            report.setAddress(find(ADDRESS, text, 0));
+        }
+        if (report.getApartment().isEmpty()) {
+            report.setApartment(find(APARTMENT, text, 1));
+        }
+    }
+
+    /**
+     * Texten utan citerade svar, med tomma rader borttagna
+     */
+    static String description(String text) {
+        StringBuilder description = new StringBuilder();
+        for (String line : text.split("\n")) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith(">")) {
+                continue;
+            }
+            if (description.length() > 0) {
+                description.append('\n');
+            }
+            description.append(trimmed);
+        }
+        return description.toString();
+    }
+
+    private static String find(Pattern pattern, String text, int group) {
+        Matcher matcher = pattern.matcher(text);
+        return matcher.find() ? matcher.group(group).trim() : "";
+    }
+
+    // Datum och ärendenummer ser också ut som siffersekvenser, så antalet siffror kontrolleras
+    private static String findPhone(String text) {
+        Matcher matcher = PHONE.matcher(text);
+        while (matcher.find()) {
+            String candidate = matcher.group().trim();
+            long digits = candidate.chars().filter(Character::isDigit).count();
+            if (digits >= MIN_PHONE_DIGITS && digits <= MAX_PHONE_DIGITS) {
+                return candidate;
+            }
+        }
+        return "";
+    }
+}
@@ -0,0 +1,213 @@
+package com.dftm.service.parser;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Aho–Corasick-automat över en uppsättning etiketter eller nyckelord. Texten läses en gång
+ * oavsett hur många etiketter som finns. Matchningen ignorerar skiftläge tecken för tecken,
+ * så positionerna i träffarna gäller originaltexten.
+ *
+ * @param <T> Värdet som en etikett står för, t.ex. ett fält eller en vikt
+ */
+public final class LabelMatcher<T> {
+
+    public record Match<T>(int start, int end, T value) {
+    }
+
+    // Kräver ordgräns före respektive efter träffen
+    private record Label<T>(String text, T value, boolean wordStart, boolean wordEnd) {
+    }
+
+    private static final char WILDCARD = '*';
+
+    private static final int ROOT = 0;
+
+    // Tecken som förekommer i någon etikett, sorterade för binärsökning
+    private final char[] alphabet;
+    // Fullständig övergångstabell, next[tillstånd][teckenindex]
+    private final int[][] next;
+    // Längsta etikett som slutar i tillståndet, 0 om ingen
+    private final int[] outputLength;
+    private final Object[] outputValue;
+    // Närmaste tillstånd längs fail-kedjan som också är slutet på en etikett
+    private final int[] dictionaryLink;
+    // Ordgränser som träffen i tillståndet kräver
+    private final boolean[] outputWordStart;
+    private final boolean[] outputWordEnd;
+
+    /**
+     * Etiketter som får sluta var som helst, t.ex. "Adress:"
+     *
+     * @param wordStart Kräv att träffen börjar på en ordgräns
+     */
+    public LabelMatcher(Map<String, T> labels, boolean wordStart) {
+        this(labels.entrySet().stream()
+            .map(entry -> new Label<>(entry.getKey(), entry.getValue(), wordStart, false))
+            .toList());
+    }
+
+    /**
+     * Nyckelord som hela ord. En asterisk markerar var ordet får fortsätta: "läck*" är en
+     * ordstam som träffar "läcker" och "läckage", "*stopp" en efterled som träffar
+     * "avloppsstopp" och "*stopp*" träffar var som helst i ett ord.
+     */
+    public static <T> LabelMatcher<T> ofKeywords(Map<String, T> keywords) {
+        return new LabelMatcher<>(keywords.entrySet().stream()
+            .map(entry -> {
+                String keyword = entry.getKey();
+                boolean prefix = keyword.charAt(0) == WILDCARD;
+                boolean suffix = keyword.length() > 1 && keyword.charAt(keyword.length() - 1) == WILDCARD;
+                String text = keyword.substring(prefix ? 1 : 0, keyword.length() - (suffix ? 1 : 0));
+                return new Label<>(text, entry.getValue(), !prefix, !suffix);
+            })
+            .toList());
+    }
+
+    private LabelMatcher(List<Label<T>> labels) {
+        StringBuilder chars = new StringBuilder();
+        labels.forEach(label -> chars.append(fold(label.text())));
+        alphabet = chars.chars().distinct().sorted()
+            .collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append)
+            .toString().toCharArray();
+
+        // Bygg trädet
+        List<int[]> gotoRows = new ArrayList<>();
+        List<Integer> lengths = new ArrayList<>();
+        List<Label<T>> outputs = new ArrayList<>();
+        gotoRows.add(newRow());
+        lengths.add(0);
+        outputs.add(null);
+        for (Label<T> entry : labels) {
+            String label = fold(entry.text());
+            if (label.isEmpty()) {
+                continue;
+            }
+            int state = ROOT;
+            for (int i = 0; i < label.length(); i++) {
+                int c = indexOf(label.charAt(i));
+                if (gotoRows.get(state)[c] < 0) {
+                    gotoRows.add(newRow());
+                    lengths.add(0);
+                    outputs.add(null);
+                    gotoRows.get(state)[c] = gotoRows.size() - 1;
+                }
+                state = gotoRows.get(state)[c];
+            }
+            lengths.set(state, label.length());
+            outputs.set(state, entry);
+        }
+
+        int states = gotoRows.size();
+        next = gotoRows.toArray(new int[0][]);
+        outputLength = lengths.stream().mapToInt(Integer::intValue).toArray();
+        outputValue = new Object[states];
+        outputWordStart = new boolean[states];
+        outputWordEnd = new boolean[states];
+        for (int state = 0; state < states; state++) {
+            Label<T> output = outputs.get(state);
+            if (output != null) {
+                outputValue[state] = output.value();
+                outputWordStart[state] = output.wordStart();
+                outputWordEnd[state] = output.wordEnd();
+            }
+        }
+        dictionaryLink = new int[states];
+        int[] fail = new int[states];
+
+        // Bredden först: fyll i fail-länkar och gör tabellen fullständig
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int c = 0; c < alphabet.length; c++) {
+            if (next[ROOT][c] < 0) {
+                next[ROOT][c] = ROOT;
+            } else {
+                fail[next[ROOT][c]] = ROOT;
+                queue.add(next[ROOT][c]);
+            }
+        }
+        dictionaryLink[ROOT] = -1;
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            int failState = fail[state];
+            dictionaryLink[state] = outputLength[failState] > 0 ? failState : dictionaryLink[failState];
+            for (int c = 0; c < alphabet.length; c++) {
+                int child = next[state][c];
+                if (child < 0) {
+                    next[state][c] = next[failState][c];
+                } else {
+                    fail[child] = next[failState][c];
+                    queue.add(child);
+                }
+            }
+        }
+    }
+
+    /**
+     * Alla träffar utan överlapp. Vid överlapp vinner den som börjar först och därefter
+     * den längsta, så "Telefonnummer:" slår "nummer:" och "vattenläcka" slår "läcka".
+     */
+    @SuppressWarnings("unchecked")
+    public List<Match<T>> findAll(CharSequence text) {
+        List<Match<T>> candidates = new ArrayList<>();
+        int state = ROOT;
+        for (int i = 0; i < text.length(); i++) {
+            int c = indexOf(fold(text.charAt(i)));
+            if (c < 0) {
+                state = ROOT;
+                continue;
+            }
+            state = next[state][c];
+            for (int out = outputLength[state] > 0 ? state : dictionaryLink[state]; out > 0; out = dictionaryLink[out]) {
+                int start = i + 1 - outputLength[out];
+                int end = i + 1;
+                if ((!outputWordStart[out] || start == 0 || !Character.isLetterOrDigit(text.charAt(start - 1)))
+                        && (!outputWordEnd[out] || end == text.length() || !Character.isLetterOrDigit(text.charAt(end)))) {
+                    candidates.add(new Match<>(start, end, (T) outputValue[out]));
+                }
+            }
+        }
+        if (candidates.size() < 2) {
+            return candidates;
+        }
+        candidates.sort(Comparator.<Match<T>>comparingInt(Match::start)
+            .thenComparing(Comparator.<Match<T>>comparingInt(Match::end).reversed()));
+        List<Match<T>> matches = new ArrayList<>();
+        int covered = 0;
+        for (Match<T> candidate : candidates) {
+            if (candidate.start() >= covered) {
+                matches.add(candidate);
+                covered = candidate.end();
+            }
+        }
+        return matches;
+    }
+
+    private int[] newRow() {
+        int[] row = new int[alphabet.length];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    private int indexOf(char c) {
+        int index = Arrays.binarySearch(alphabet, c);
+        return index < 0 ? -1 : index;
+    }
+
+    private static String fold(String value) {
+        StringBuilder folded = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            folded.append(fold(value.charAt(i)));
+        }
+        return folded.toString();
+    }
+
+    // Tecken för tecken så att längden inte ändras, till skillnad från String.toLowerCase
+    private static char fold(char c) {
+        return Character.toLowerCase(c);
+    }
+}
@@ -0,0 +1,28 @@
+package com.dftm.service.parser;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Resultatet av att tolka ett mejl. Fält som inte hittades är tomma strängar.
+ */
+@Data
+@Builder
+public class ParsedFaultReport {
+    private String profile;
+    // Falskt när inga etiketter hittades och allt kommer från fritexttolkningen
+    private boolean structured;
+
+    @Builder.Default
+    private String name = "";
+    @Builder.Default
+    private String email = "";
+    @Builder.Default
+    private String phone = "";
+    @Builder.Default
+    private String address = "";
+    @Builder.Default
+    private String apartment = "";
+    @Builder.Default
+    private String description = "";
+}
@@ -0,0 +1,85 @@
+package com.dftm.service.parser;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * En uppsättning etiketter för ett formulär eller språk, kompilerad till en LabelMatcher.
+ * Varje etikett gäller fram till nästa; enkla fält tar första raden, beskrivningen allt.
+ */
+public final class ParserProfile {
+    private static final String SEPARATOR = "---";
+
+    private final String name;
+    private final Map<ReportField, List<String>> labels;
+    private final LabelMatcher<ReportField> matcher;
+
+    ParserProfile(String name, Map<ReportField, List<String>> labels) {
+        this.name = name;
+        this.labels = Map.copyOf(labels);
+        Map<String, ReportField> byLabel = new LinkedHashMap<>();
+        labels.forEach((field, fieldLabels) -> fieldLabels.forEach(label -> byLabel.put(label.trim(), field)));
+        this.matcher = new LabelMatcher<>(byLabel, true);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Map<ReportField, List<String>> getLabels() {
+        return labels;
+    }
+
+    public ParsedFaultReport parse(String text) {
+        // Allt efter separatorn är formulärets sidfot
+        int separator = text.indexOf(SEPARATOR);
+        String body = separator >= 0 ? text.substring(0, separator) : text;
+
+        List<LabelMatcher.Match<ReportField>> matches = matcher.findAll(body);
+        ParsedFaultReport report = ParsedFaultReport.builder()
+            .profile(name)
+            .structured(!matches.isEmpty())
+            .build();
+
+        StringBuilder description = new StringBuilder();
+        for (int i = 0; i < matches.size(); i++) {
+            LabelMatcher.Match<ReportField> match = matches.get(i);
+            int end = i + 1 < matches.size() ? matches.get(i + 1).start() : body.length();
+            String value = body.substring(match.end(), end);
+            if (match.value() == ReportField.DESCRIPTION) {
+                String part = FreeTextExtractor.description(value);
+                if (!part.isEmpty()) {
+                    if (description.length() > 0) {
+                        description.append('\n');
+                    }
+                    description.append(part);
+                }
+            } else {
+                set(report, match.value(), firstLine(value));
+            }
+        }
+        report.setDescription(matches.isEmpty()
+            ? FreeTextExtractor.description(body)
+            : description.toString());
+        FreeTextExtractor.fillMissing(report, body);
+        return report;
+    }
+
+    private static void set(ParsedFaultReport report, ReportField field, String value) {
+        switch (field) {
+            case NAME -> report.setName(value);
+            case EMAIL -> report.setEmail(value);
+            case PHONE -> report.setPhone(value);
+            case ADDRESS -> report.setAddress(value);
+            case APARTMENT -> report.setApartment(value);
+            case DESCRIPTION -> report.setDescription(value);
+        }
+    }
+
+    private static String firstLine(String value) {
+        String trimmed = value.strip();
+        int newline = trimmed.indexOf('\n');
+        return (newline >= 0 ? trimmed.substring(0, newline) : trimmed).strip();
+    }
+}
@@ -0,0 +1,100 @@
+package com.dftm.service.parser;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+
+import com.dftm.config.EmailParserProperties;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Register över parserprofiler. De inbyggda täcker webbformuläret ("standard") och
+ * motsvarande etiketter på engelska, polska och ukrainska; "multilingual" känner igen
+ * alla. Profilerna kompileras en gång vid uppstart.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ParserProfileRegistry {
+    public static final String STANDARD = "standard";
+    public static final String MULTILINGUAL = "multilingual";
+
+    private final EmailParserProperties properties;
+    private Map<String, ParserProfile> profiles;
+
+    @PostConstruct
+    public void init() {
+        Map<String, Map<ReportField, List<String>>> definitions = new LinkedHashMap<>();
+        definitions.put(STANDARD, labels(
+            "Namn:", "E-post:", "Telefonnummer:", "Adress:", "Lägenhetsnummer:", "Meddelande:"));
+        definitions.put("en", labels(
+            "Name:", "Email:|E-mail:", "Phone:|Phone number:", "Address:", "Apartment:|Apartment number:", "Message:|Description:"));
+        definitions.put("pl", labels(
+            "Imię i nazwisko:|Imię:", "E-mail:", "Telefon:|Numer telefonu:", "Adres:", "Numer mieszkania:|Mieszkanie:", "Wiadomość:|Opis:"));
+        definitions.put("uk", labels(
+            "Ім'я:|Ім’я:", "Електронна пошта:|E-mail:", "Телефон:|Номер телефону:", "Адреса:", "Номер квартири:|Квартира:", "Повідомлення:|Опис:"));
+
+        Map<ReportField, List<String>> union = new EnumMap<>(ReportField.class);
+        definitions.values().forEach(definition -> definition.forEach((field, fieldLabels) ->
+            union.computeIfAbsent(field, key -> new ArrayList<>()).addAll(fieldLabels)));
+        union.replaceAll((field, fieldLabels) -> List.copyOf(new LinkedHashSet<>(fieldLabels)));
+        definitions.put(MULTILINGUAL, union);
+
+        properties.getProfiles().forEach((name, configured) -> {
+            Map<ReportField, List<String>> definition = new EnumMap<>(ReportField.class);
+            configured.forEach((field, fieldLabels) ->
+                definition.put(ReportField.valueOf(field.toUpperCase(Locale.ROOT)), List.copyOf(fieldLabels)));
+            if (definitions.put(name, definition) != null) {
+                log.info("Parser profile {} overridden by configuration", name);
+            }
+        });
+
+        Map<String, ParserProfile> compiled = new LinkedHashMap<>();
+        definitions.forEach((name, definition) -> compiled.put(name, new ParserProfile(name, definition)));
+        profiles = Map.copyOf(compiled);
+        log.info("Loaded parser profiles: {}", compiled.keySet());
+    }
+
+    public boolean contains(String name) {
+        return profiles.containsKey(name);
+    }
+
+    public Set<String> names() {
+        return profiles.keySet();
+    }
+
+    /**
+     * Okända namn faller tillbaka på standardprofilen
+     */
+    public ParserProfile get(String name) {
+        ParserProfile profile = name != null ? profiles.get(name) : null;
+        return profile != null ? profile : profiles.get(STANDARD);
+    }
+
+    public ParsedFaultReport parse(String profileName, String text) {
+        return get(profileName).parse(text);
+    }
+
+    // Ordningen följer ReportField; alternativa etiketter för samma fält skiljs med |
+    private static Map<ReportField, List<String>> labels(String name, String email, String phone,
+            String address, String apartment, String description) {
+        Map<ReportField, List<String>> labels = new EnumMap<>(ReportField.class);
+        labels.put(ReportField.NAME, List.of(name.split("\\|")));
+        labels.put(ReportField.EMAIL, List.of(email.split("\\|")));
+        labels.put(ReportField.PHONE, List.of(phone.split("\\|")));
+        labels.put(ReportField.ADDRESS, List.of(address.split("\\|")));
+        labels.put(ReportField.APARTMENT, List.of(apartment.split("\\|")));
+        labels.put(ReportField.DESCRIPTION, List.of(description.split("\\|")));
+        return labels;
+    }
+}
@@ -0,0 +1,14 @@
+package com.dftm.service.parser;
+
+/**
+ * Fälten i en felanmälan som en parserprofil kan ha etiketter för
+ */
+public enum ReportField {
+    NAME,
+    EMAIL,
+    PHONE,
+    ADDRESS,
+    APARTMENT,
+    // Fritext som kan sträcka sig över flera rader, fram till nästa etikett
+    DESCRIPTION
+}
@@ -0,0 +1,103 @@
+package com.dftm;
+
+import java.util.List;
+
+import org.bson.Document;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+
+import de.flapdoodle.embed.mongo.commands.MongodArguments;
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.config.Storage;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import de.flapdoodle.reverse.transitions.Start;
+
+/**
+ * En mongod per testkörning, delad mellan alla testklasser och applikationskontexter.
+ * TEST_MONGODB_URL pekar ut en befintlig server, annars startas en inbäddad vid första
+ * användningen och stoppas när JVM:en avslutas. Den inbäddade är ett replica set med en
+ * nod, eftersom massgodkännandet kör i en transaktion; en extern server behöver också vara det.
+ * Går ingen av dem att nå hoppas testklasser med
+ * {@code @EnabledIf("com.dftm.EmbeddedMongo#available")} över.
+ */
+public final class EmbeddedMongo {
+    private static final String EXTERNAL_URL = "TEST_MONGODB_URL";
+    private static final String REPLICA_SET = "rs0";
+
+    private static String baseUri;
+    private static String options = "";
+    private static boolean failed;
+
+    private EmbeddedMongo() {
+    }
+
+    public static synchronized boolean available() {
+        if (baseUri == null && !failed) {
+            try {
+                baseUri = resolve();
+            } catch (RuntimeException e) {
+                failed = true;
+                Throwable cause = e;
+                while (cause.getCause() != null) {
+                    cause = cause.getCause();
+                }
+                System.err.println("No MongoDB for integration tests, skipping them: " + cause);
+            }
+        }
+        return baseUri != null;
+    }
+
+    public static String uri(String database) {
+        if (!available()) {
+            throw new IllegalStateException("No MongoDB for integration tests, set " + EXTERNAL_URL);
+        }
+        return baseUri + "/" + database + options;
+    }
+
+    /**
+     * För @DynamicPropertySource, varje testklass får en egen databas
+     */
+    public static void register(DynamicPropertyRegistry registry, String database) {
+        registry.add("spring.data.mongodb.uri", () -> uri(database));
+    }
+
+    private static String resolve() {
+        String external = System.getProperty(EXTERNAL_URL, System.getenv(EXTERNAL_URL));
+        if (external != null && !external.isBlank()) {
+            return external.replaceAll("/+$", "");
+        }
+        TransitionWalker.ReachedState<RunningMongodProcess> running = Mongod.instance()
+            .withMongodArguments(Start.to(MongodArguments.class).initializedWith(MongodArguments.defaults()
+                .withUseNoJournal(false)
+                .withReplication(Storage.of(REPLICA_SET, 0))))
+            .start(Version.Main.V6_0);
+        Runtime.getRuntime().addShutdownHook(new Thread(running::close, "embedded-mongo-stop"));
+        ServerAddress address = running.current().getServerAddress();
+        String uri = "mongodb://" + address.getHost() + ":" + address.getPort();
+        initiateReplicaSet(uri, address.getHost() + ":" + address.getPort());
+        options = "?directConnection=true";
+        return uri;
+    }
+
+    private static void initiateReplicaSet(String uri, String member) {
+        try (MongoClient client = MongoClients.create(uri + "/?directConnection=true")) {
+            client.getDatabase("admin").runCommand(new Document("replSetInitiate", new Document("_id", REPLICA_SET)
+                .append("members", List.of(new Document("_id", 0).append("host", member)))));
+            long deadline = System.currentTimeMillis() + 30_000;
+            while (!client.getDatabase("admin").runCommand(new Document("hello", 1)).getBoolean("isWritablePrimary", false)) {
+                if (System.currentTimeMillis() > deadline) {
+                    throw new IllegalStateException("Replica set " + REPLICA_SET + " did not elect a primary");
+                }
+                Thread.sleep(100);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
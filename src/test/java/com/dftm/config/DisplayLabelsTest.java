@@ -0,0 +1,54 @@
+package com.dftm.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Locale;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.MessageSource;
+
+import com.dftm.model.TaskStatus;
+
+/**
+ * Tabellerna ska ge samma text som MessageSource, även för språk utan egen fil
+ * på en server vars locale har en.
+ */
+class DisplayLabelsTest {
+    private Locale systemLocale;
+
+    @BeforeEach
+    void swedishServer() {
+        systemLocale = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("sv"));
+    }
+
+    @AfterEach
+    void restore() {
+        Locale.setDefault(systemLocale);
+    }
+
+    @Test
+    void unknownLanguageMatchesMessageSource() throws Exception {
+        MessageSource messageSource = new MessageConfig().messageSource();
+        DisplayLabels labels = new DisplayLabels(messageSource);
+        Locale german = Locale.GERMAN;
+
+        for (TaskStatus status : TaskStatus.values()) {
+            assertEquals(messageSource.getMessage("status." + status.name(), null, german),
+                labels.status(status, german));
+        }
+        assertEquals("IN PROGRESS", labels.status(TaskStatus.IN_PROGRESS, german));
+    }
+
+    @Test
+    void knownLanguageUsesItsBundle() throws Exception {
+        MessageSource messageSource = new MessageConfig().messageSource();
+        DisplayLabels labels = new DisplayLabels(messageSource);
+        Locale polish = Locale.forLanguageTag("pl");
+
+        assertEquals(messageSource.getMessage("status.IN_PROGRESS", null, polish),
+            labels.status(TaskStatus.IN_PROGRESS, polish));
+    }
+}
@@ -0,0 +1,53 @@
+package com.dftm.config;
+
+import java.util.stream.Collectors;
+
+/**
+ * Hjälpmetoder för tester som vill säkerställa att ett anrop inte gör fler
+ * Mongo-frågor än väntat, t.ex. för att fånga N+1-mönster:
+ *
+ * <pre>
+ * QueryBudget.assertAtMost(2, () -> mockMvc.perform(get("/api/v1/tasks/pending")));
+ * </pre>
+ *
+ * Räknar kommandon som körs på den anropande tråden, vilket gäller MockMvc och
+ * direkta serviceanrop men inte den reaktiva drivrutinen.
+ */
+public final class QueryBudget {
+
+    @FunctionalInterface
+    public interface Action {
+        void run() throws Exception;
+    }
+
+    private QueryBudget() {
+    }
+
+    /**
+     * Kör action och returnerar de Mongo-kommandon den gav upphov till
+     */
+    public static QueryStats measure(Action action) throws Exception {
+        QueryStats stats = new QueryStats();
+        QueryStats previous = QueryStats.begin(stats);
+        try {
+            action.run();
+        } finally {
+            QueryStats.end(previous);
+        }
+        return stats;
+    }
+
+    /**
+     * Kör action och kastar AssertionError om den gjorde fler än maxQueries Mongo-kommandon
+     */
+    public static QueryStats assertAtMost(int maxQueries, Action action) throws Exception {
+        QueryStats stats = measure(action);
+        if (stats.getCount() > maxQueries) {
+            throw new AssertionError("Expected at most " + maxQueries + " Mongo queries but got "
+                    + stats.getCount() + ":\n" + stats.getQueries().stream()
+                            .map(query -> "  " + query)
+                            .collect(Collectors.joining("\n")));
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,97 @@
+package com.dftm.config;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.dftm.EmbeddedMongo;
+import com.dftm.model.Task;
+import com.dftm.model.TaskPriority;
+import com.dftm.model.TaskStatus;
+import com.dftm.repository.TaskRepository;
+
+/**
+ * GET /api/v1/tasks/pending hämtade tidigare en användare per uppgift. Listan ska
+ * kosta lika många Mongo-frågor oavsett hur många uppgifter den innehåller.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(authorities = "ROLE_ADMIN")
+@EnabledIf("com.dftm.EmbeddedMongo#available")
+class QueryBudgetTest {
+
+    @DynamicPropertySource
+    static void mongo(DynamicPropertyRegistry registry) {
+        EmbeddedMongo.register(registry, "query_budget_test");
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @BeforeEach
+    void clear() {
+        taskRepository.deleteAll();
+    }
+
+    @Test
+    void pendingTaskListDoesNotQueryPerTask() throws Exception {
+        saveTasks(5);
+        QueryStats few = QueryBudget.measure(() -> mockMvc.perform(get("/api/v1/tasks/pending")).andExpect(status().isOk()));
+
+        saveTasks(50);
+        QueryBudget.assertAtMost(few.getCount(),
+            () -> mockMvc.perform(get("/api/v1/tasks/pending")).andExpect(status().isOk()));
+    }
+
+    @Test
+    void pendingTaskListStaysWithinBudget() throws Exception {
+        saveTasks(50);
+        QueryBudget.assertAtMost(2, () -> mockMvc.perform(get("/api/v1/tasks/pending").param("language", "EN"))
+            .andExpect(status().isOk()));
+    }
+
+    @Test
+    void budgetFailsWhenExceeded() {
+        saveTasks(3);
+        // Ett N+1-mönster: en fråga för listan och en per uppgift
+        assertThrows(AssertionError.class, () -> QueryBudget.assertAtMost(1,
+            () -> taskRepository.findAll().forEach(task -> taskRepository.findById(task.getId()))));
+    }
+
+    private void saveTasks(int count) {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            tasks.add(Task.builder()
+                .title("Uppgift " + i)
+                .description("Beskrivning " + i)
+                .status(TaskStatus.PENDING)
+                .priority(TaskPriority.MEDIUM)
+                .assignedTo("user-" + (i % 7))
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .archived(false)
+                .build());
+        }
+        taskRepository.saveAll(tasks);
+    }
+}
@@ -0,0 +1,115 @@
+package com.dftm.controller;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.dftm.EmbeddedMongo;
+import com.dftm.model.Task;
+import com.dftm.model.TaskPriority;
+import com.dftm.model.TaskStatus;
+import com.dftm.repository.TaskRepository;
+import com.dftm.repository.TaskTombstoneRepository;
+import com.dftm.service.TaskService;
+
+/**
+ * En klient som synkar med ?since= ska få ändrade uppgifter och borttagna id:n, även
+ * skrivningar stämplade strax före since, och 304 på hela listan när inget har ändrats.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(authorities = "ROLE_ADMIN")
+@EnabledIf("com.dftm.EmbeddedMongo#available")
+class TaskDeltaTest {
+
+    @DynamicPropertySource
+    static void mongo(DynamicPropertyRegistry registry) {
+        EmbeddedMongo.register(registry, "task_delta_test");
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskTombstoneRepository taskTombstoneRepository;
+
+    @BeforeEach
+    void clear() {
+        taskRepository.deleteAll();
+        taskTombstoneRepository.deleteAll();
+    }
+
+    @Test
+    void deltaContainsUpdatesAndTombstones() throws Exception {
+        LocalDateTime since = LocalDateTime.now();
+        String updated = save("Kranen droppar", since.minusMinutes(1));
+        String deleted = save("Elementet är kallt", since.minusMinutes(1));
+        String justBefore = save("Hissen står still", since.minusSeconds(3));
+        String longBefore = save("Lampan i trapphuset", since.minusSeconds(30));
+
+        taskService.updateTaskStatus(updated, TaskStatus.IN_PROGRESS);
+        taskService.deleteTask(deleted);
+
+        mockMvc.perform(get("/api/v1/tasks").param("since", since.toString()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.resyncRequired").value(false))
+            .andExpect(jsonPath("$.changed[*].id", hasItem(updated)))
+            .andExpect(jsonPath("$.changed[*].id", hasItem(justBefore)))
+            .andExpect(jsonPath("$.changed[*].id", not(hasItem(longBefore))))
+            .andExpect(jsonPath("$.removedIds", hasItem(deleted)));
+    }
+
+    @Test
+    void unchangedListAnswersNotModified() throws Exception {
+        String id = save("Kranen droppar", LocalDateTime.now().minusMinutes(1));
+
+        String etag = mockMvc.perform(get("/api/v1/tasks"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        mockMvc.perform(get("/api/v1/tasks").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified());
+
+        taskService.updateTaskStatus(id, TaskStatus.IN_PROGRESS);
+        mockMvc.perform(get("/api/v1/tasks").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk());
+    }
+
+    private String save(String title, LocalDateTime updatedAt) {
+        return taskRepository.save(Task.builder()
+            .title(title)
+            .description(title)
+            .status(TaskStatus.PENDING)
+            .priority(TaskPriority.MEDIUM)
+            .createdAt(updatedAt)
+            .updatedAt(updatedAt)
+            .archived(false)
+            .build()).getId();
+    }
+}
@@ -0,0 +1,58 @@
+package com.dftm.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class AddressNormalizerTest {
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(delimiter = '|', value = {
+        "Storgatan 5               | storgatan 5",
+        "Storg. 5 B, 2 tr          | storgatan 5b",
+        "STORGATAN 5b              | storgatan 5b",
+        "storgata 5-B              | storgatan 5b",
+        "Storgatan 5, lgh 1203     | storgatan 5",
+        "Storgatan 5 lgh 1203      | storgatan 5",
+        "Lgh 1203, Storgatan 5     | storgatan 5",
+        "Lägenhet 4, Kungsv. 12    | kungsvägen 12",
+        "St. Eriksgatan 12         | st eriksgatan 12",
+        "12 Main St                | main street 12",
+        "Main St. 12               | main street 12",
+        "Baker Rd 4                | baker road 4",
+        "ul. Długa 5 m. 3          | długa 5",
+        "al. Jerozolimskie 44      | aleja jerozolimskie 44",
+        "вул. Шевченка 10, кв. 7   | шевченка 10",
+        "пр. Перемоги 3            | проспект перемоги 3",
+    })
+    void buildingKey(String address, String expected) {
+        assertEquals(expected, AddressNormalizer.buildingKey(address));
+    }
+
+    @Test
+    void missingAddressHasNoKey() {
+        assertNull(AddressNormalizer.buildingKey(null));
+        assertNull(AddressNormalizer.buildingKey("  "));
+        assertNull(AddressNormalizer.buildingKey("Lgh 1203"));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(delimiter = '|', value = {
+        "1203            | 1203",
+        "Lgh 1203        | 1203",
+        "Mieszkanie nr 3 | 3",
+        "кв. 7           | 7",
+    })
+    void apartmentKey(String apartment, String expected) {
+        assertEquals(expected, AddressNormalizer.apartmentKey(apartment));
+    }
+
+    @Test
+    void fingerprintFollowsBuildingKey() {
+        assertEquals(FaultReportFingerprint.of("Anna", "Storg. 5 B", "Lgh 1203", "Kranen droppar"),
+            FaultReportFingerprint.of("anna", "Storgatan 5b, 2 tr", "1203", "Kranen droppar!"));
+    }
+}
@@ -0,0 +1,41 @@
+package com.dftm.service;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.dftm.config.EmailSourceProperties;
+
+class EmailSourceValidationTest {
+
+    @Test
+    void acceptsUniqueNames() {
+        assertDoesNotThrow(() -> EmailListener.validateSourceNames(List.of(source("duggals"), source("bostad"))));
+    }
+
+    @Test
+    void rejectsMissingName() {
+        assertThrows(IllegalStateException.class,
+            () -> EmailListener.validateSourceNames(List.of(source("duggals"), source(null))));
+    }
+
+    @Test
+    void rejectsBlankName() {
+        assertThrows(IllegalStateException.class, () -> EmailListener.validateSourceNames(List.of(source("  "))));
+    }
+
+    @Test
+    void rejectsDuplicateNames() {
+        assertThrows(IllegalStateException.class,
+            () -> EmailListener.validateSourceNames(List.of(source("duggals"), source("duggals"))));
+    }
+
+    private static EmailSourceProperties.Source source(String name) {
+        EmailSourceProperties.Source source = new EmailSourceProperties.Source();
+        source.setName(name);
+        return source;
+    }
+}
@@ -0,0 +1,93 @@
+package com.dftm.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import com.dftm.DFTMApplication;
+import com.dftm.EmbeddedMongo;
+import com.dftm.model.SchedulerLease;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Två instanser mot samma databas: bara ledaren får läsa inkorgen, och när den
+ * stängs av tar den andra över.
+ */
+@EnabledIf("com.dftm.EmbeddedMongo#available")
+class LeaderElectionTest {
+    private static final String DATABASE = "leader_election_test";
+
+    private ConfigurableApplicationContext first;
+    private ConfigurableApplicationContext second;
+
+    @AfterEach
+    void close() {
+        if (second != null) {
+            second.close();
+        }
+        if (first != null) {
+            first.close();
+        }
+    }
+
+    @Test
+    void onlyOneInstancePollsTheInbox() throws Exception {
+        first = start();
+        first.getBean(MongoTemplate.class).dropCollection(SchedulerLease.class);
+        second = start();
+
+        for (int i = 0; i < 3; i++) {
+            first.getBean(EmailListener.class).checkEmails();
+            second.getBean(EmailListener.class).checkEmails();
+        }
+        awaitPolls(List.of(first, second));
+
+        List<ConfigurableApplicationContext> polling = List.of(first, second).stream()
+            .filter(context -> polls(context) > 0)
+            .toList();
+        assertEquals(1, polling.size(), "exactly one instance should poll");
+        assertEquals(1, List.of(first, second).stream()
+            .filter(context -> context.getBean(LeaderElectionService.class).isLeader(LeaderElectionService.EMAIL_INGEST))
+            .count());
+
+        ConfigurableApplicationContext follower = polling.get(0) == first ? second : first;
+        polling.get(0).close();
+        assertTrue(follower.getBean(LeaderElectionService.class).tryAcquire(LeaderElectionService.EMAIL_INGEST),
+            "the follower should take over once the leader releases the lease");
+    }
+
+    private ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(DFTMApplication.class)
+            .profiles("test")
+            .properties("spring.data.mongodb.uri=" + EmbeddedMongo.uri(DATABASE))
+            .run();
+    }
+
+    // Inläsningen körs i EmailListeners egen pool, vänta tills minst en omgång är klar
+    private static void awaitPolls(List<ConfigurableApplicationContext> contexts) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (contexts.stream().mapToLong(LeaderElectionTest::polls).sum() == 0
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+    }
+
+    private static long polls(ConfigurableApplicationContext context) {
+        if (!context.isActive()) {
+            return 0;
+        }
+        return context.getBean(MeterRegistry.class).find("dftm.email.poll").timers().stream()
+            .mapToLong(Timer::count)
+            .sum();
+    }
+}
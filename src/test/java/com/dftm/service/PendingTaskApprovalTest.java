@@ -0,0 +1,134 @@
+package com.dftm.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.dftm.EmbeddedMongo;
+import com.dftm.dto.BulkOperationResult;
+import com.dftm.dto.BulkPendingTaskRequest;
+import com.dftm.exception.ConflictException;
+import com.dftm.model.PendingTask;
+import com.dftm.model.Task;
+import com.dftm.repository.PendingTaskRepository;
+import com.dftm.repository.TaskRepository;
+
+/**
+ * Godkännande när någon annan hinner stänga en felanmälan samtidigt: massgodkännandet
+ * ska rullas tillbaka helt och ett enskilt godkännande får aldrig skapa två uppgifter.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIf("com.dftm.EmbeddedMongo#available")
+class PendingTaskApprovalTest {
+
+    @DynamicPropertySource
+    static void mongo(DynamicPropertyRegistry registry) {
+        EmbeddedMongo.register(registry, "pending_task_approval_test");
+    }
+
+    /**
+     * Stänger en felanmälan från en annan tråd, utanför transaktionen, precis när
+     * massgodkännandet har börjat skriva sina uppgifter
+     */
+    @TestConfiguration
+    static class ConcurrentRejection {
+        static final AtomicReference<String> closeOnInsert = new AtomicReference<>();
+
+        @Bean
+        AbstractMongoEventListener<Task> rejectDuringInsert(MongoTemplate mongoTemplate) {
+            return new AbstractMongoEventListener<>() {
+                @Override
+                public void onBeforeConvert(BeforeConvertEvent<Task> event) {
+                    String id = closeOnInsert.getAndSet(null);
+                    if (id != null) {
+                        CompletableFuture.runAsync(() -> mongoTemplate.updateFirst(
+                            Query.query(Criteria.where("_id").is(id)),
+                            new Update().set("status", "REJECTED").inc("version", 1), PendingTask.class)).join();
+                    }
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private PendingTaskService pendingTaskService;
+
+    @Autowired
+    private PendingTaskRepository pendingTaskRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @BeforeEach
+    void clear() {
+        pendingTaskRepository.deleteAll();
+        taskRepository.deleteAll();
+    }
+
+    @AfterEach
+    void disarm() {
+        ConcurrentRejection.closeOnInsert.set(null);
+    }
+
+    @Test
+    void bulkApprovalRollsBackWhenOneIsClosedConcurrently() {
+        List<String> ids = List.of(save("Kranen droppar"), save("Elementet är kallt"), save("Hissen står still"));
+        ConcurrentRejection.closeOnInsert.set(ids.get(1));
+
+        BulkPendingTaskRequest request = new BulkPendingTaskRequest();
+        request.setIds(ids);
+        BulkOperationResult result = pendingTaskService.approvePendingTasks(request, "admin");
+
+        assertEquals(0, result.getSucceeded());
+        result.getResults().forEach(item -> assertFalse(item.isSuccess(), item.getId() + " should have failed"));
+        assertEquals(0, taskRepository.count(), "no task may survive the rollback");
+        assertEquals("PENDING", pendingTaskRepository.findById(ids.get(0)).orElseThrow().getStatus());
+        assertEquals("PENDING", pendingTaskRepository.findById(ids.get(2)).orElseThrow().getStatus());
+    }
+
+    @Test
+    void singleApprovalOfClosedTaskCreatesNoTask() {
+        String id = save("Låset på ytterdörren kärvar");
+
+        pendingTaskService.approvePendingTask(id);
+        assertThrows(ConflictException.class, () -> pendingTaskService.approvePendingTask(id));
+
+        assertEquals(1, taskRepository.count());
+        assertEquals("APPROVED", pendingTaskRepository.findById(id).orElseThrow().getStatus());
+    }
+
+    private String save(String description) {
+        return pendingTaskRepository.save(PendingTask.builder()
+            .name("Anna Svensson")
+            .address("Storgatan 5")
+            .apartment("1203")
+            .description(description)
+            .status("PENDING")
+            .received(LocalDateTime.now())
+            .build()).getId();
+    }
+}
@@ -0,0 +1,93 @@
+package com.dftm.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvFileSource;
+
+import com.dftm.config.PriorityRuleProperties;
+import com.dftm.model.Language;
+import com.dftm.model.TaskPriority;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Märkt korpus i src/test/resources/priority-corpus.csv, inklusive de falska träffar som
+ * delsträngsmatchningen gav, och en enkel tidsmätning per felanmälan.
+ */
+class PriorityInferenceServiceTest {
+    private static final int WARMUP_ROUNDS = 20_000;
+    private static final int MEASURED_ROUNDS = 50_000;
+    private static final long MAX_MICROS_PER_REPORT = 100;
+
+    private PriorityRuleProperties properties;
+    private PriorityInferenceService service;
+
+    @BeforeEach
+    void setUp() {
+        properties = new PriorityRuleProperties();
+        service = new PriorityInferenceService(properties, new SimpleMeterRegistry());
+        service.init();
+    }
+
+    @ParameterizedTest(name = "{0}: {1}")
+    @CsvFileSource(resources = "/priority-corpus.csv", delimiter = '|', encoding = "UTF-8")
+    void infersLabeledPriority(TaskPriority expected, String description) {
+        assertEquals(expected, service.infer(description, null));
+    }
+
+    @Test
+    void translationCanRaisePriority() {
+        assertEquals(TaskPriority.URGENT, service.infer("Vandet løber ud på gulvet",
+            Map.of(Language.EN, "There is a water leak in the kitchen")));
+    }
+
+    @Test
+    void configuredKeywordsOverrideBuiltIn() {
+        properties.setKeywords(Map.of("vattenskad*", 10, "dropp*", 0));
+        service.init();
+
+        assertEquals(TaskPriority.URGENT, service.infer("Vattenskadan i taket har spridit sig", null));
+        assertEquals(TaskPriority.MEDIUM, service.infer("Kranen droppar", null));
+    }
+
+    @Test
+    void disabledInferenceGivesMedium() {
+        properties.setEnabled(false);
+        assertEquals(TaskPriority.MEDIUM, service.infer("Det brinner!", null));
+    }
+
+    @Test
+    void infersWithinBudget() {
+        List<String> descriptions = List.of(
+            "Kranen i köket droppar och det har pågått sedan i fredags, kan ni skicka någon?",
+            "The front door lock is broken and the elevator is stuck on the third floor",
+            "Pożar w piwnicy, dużo dymu",
+            "Скрипить двері, Вадим");
+        int checksum = run(descriptions, WARMUP_ROUNDS);
+        long start = System.nanoTime();
+        checksum += run(descriptions, MEASURED_ROUNDS);
+        long elapsed = System.nanoTime() - start;
+
+        double microsPerReport = elapsed / 1_000.0 / ((long) MEASURED_ROUNDS * descriptions.size());
+        System.out.printf("Inferred %d priorities, %.2f us per report (checksum %d)%n",
+            MEASURED_ROUNDS * descriptions.size(), microsPerReport, checksum);
+        assertTrue(microsPerReport < MAX_MICROS_PER_REPORT, "inference took " + microsPerReport + " us per report");
+    }
+
+    private int run(List<String> descriptions, int rounds) {
+        int checksum = 0;
+        for (int round = 0; round < rounds; round++) {
+            for (String description : descriptions) {
+                checksum += service.infer(description, null).ordinal();
+            }
+        }
+        return checksum;
+    }
+}
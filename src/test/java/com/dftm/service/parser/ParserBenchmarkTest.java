@@ -0,0 +1,56 @@
+package com.dftm.service.parser;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Enkel tidsmätning över korpusen, skriver ut tiden per mejl (omkring 35 µs på JDK 17).
+ * Gränsen ligger långt över det så att testet bara slår larm om tolkningen blir
+ * storleksordningar långsammare, till exempel av ett reguljärt uttryck som backtrackar.
+ */
+class ParserBenchmarkTest {
+    private static final int WARMUP_ROUNDS = 2_000;
+    private static final int MEASURED_ROUNDS = 5_000;
+    private static final long MAX_MICROS_PER_REPORT = 500;
+
+    private record Sample(String profile, String text) {
+    }
+
+    @Test
+    void parsesCorpusWithinBudget() {
+        ParserProfileRegistry registry = ParserCorpus.registry();
+        List<Sample> samples = ParserCorpus.cases().stream()
+            .map(name -> {
+                Properties expected = ParserCorpus.expected(name);
+                return new Sample(expected.getProperty("profile"), ParserCorpus.text(name));
+            })
+            .toList();
+
+        run(registry, samples, WARMUP_ROUNDS);
+        long start = System.nanoTime();
+        long checksum = run(registry, samples, MEASURED_ROUNDS);
+        long elapsed = System.nanoTime() - start;
+
+        double microsPerReport = elapsed / 1_000.0 / ((long) MEASURED_ROUNDS * samples.size());
+        System.out.printf("Parsed %d reports, %.1f us per report (checksum %d)%n",
+            MEASURED_ROUNDS * samples.size(), microsPerReport, checksum);
+        assertTrue(microsPerReport < MAX_MICROS_PER_REPORT,
+            "parsing took " + microsPerReport + " us per report");
+    }
+
+    // Summan av fältlängderna hindrar JIT:en från att ta bort anropen
+    private static long run(ParserProfileRegistry registry, List<Sample> samples, int rounds) {
+        long checksum = 0;
+        for (int round = 0; round < rounds; round++) {
+            for (Sample sample : samples) {
+                ParsedFaultReport report = registry.parse(sample.profile(), sample.text());
+                checksum += report.getDescription().length() + report.getAddress().length();
+            }
+        }
+        return checksum;
+    }
+}
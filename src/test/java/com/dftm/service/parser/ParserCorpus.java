@@ -0,0 +1,59 @@
+package com.dftm.service.parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Properties;
+
+import com.dftm.config.EmailParserProperties;
+
+/**
+ * Mejlen i src/test/resources/parser-corpus. Varje fall är en .txt med mejlets text och
+ * en .properties med profilen och de fält parsern ska ge.
+ */
+final class ParserCorpus {
+    private static final List<String> CASES = List.of(
+        "web-form", "web-form-one-line", "free-text", "english", "ukrainian", "label-mid-line", "free-text-english");
+
+    private ParserCorpus() {
+    }
+
+    static List<String> cases() {
+        return CASES;
+    }
+
+    static ParserProfileRegistry registry() {
+        ParserProfileRegistry registry = new ParserProfileRegistry(new EmailParserProperties());
+        registry.init();
+        return registry;
+    }
+
+    static String text(String name) {
+        try (InputStream in = resource(name + ".txt")) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static Properties expected(String name) {
+        Properties expected = new Properties();
+        try (InputStreamReader reader = new InputStreamReader(resource(name + ".properties"), StandardCharsets.UTF_8)) {
+            expected.load(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return expected;
+    }
+
+    private static InputStream resource(String file) {
+        InputStream in = ParserCorpus.class.getResourceAsStream("/parser-corpus/" + file);
+        if (in == null) {
+            throw new IllegalStateException("Missing corpus file " + file);
+        }
+        return in;
+    }
+}
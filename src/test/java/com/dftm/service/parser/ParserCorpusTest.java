@@ -0,0 +1,39 @@
+package com.dftm.service.parser;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Properties;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Regressionstest mot korpusen: varje mejl ska ge exakt de fält som står i dess .properties
+ */
+class ParserCorpusTest {
+    private static ParserProfileRegistry registry;
+
+    @BeforeAll
+    static void compileProfiles() {
+        registry = ParserCorpus.registry();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("com.dftm.service.parser.ParserCorpus#cases")
+    void parsesCorpusMail(String name) {
+        Properties expected = ParserCorpus.expected(name);
+        ParsedFaultReport report = registry.parse(expected.getProperty("profile"), ParserCorpus.text(name));
+
+        assertAll(
+            () -> assertEquals(expected.getProperty("profile"), report.getProfile(), "profile"),
+            () -> assertEquals(Boolean.parseBoolean(expected.getProperty("structured")), report.isStructured(), "structured"),
+            () -> assertEquals(expected.getProperty("name"), report.getName(), "name"),
+            () -> assertEquals(expected.getProperty("email"), report.getEmail(), "email"),
+            () -> assertEquals(expected.getProperty("phone"), report.getPhone(), "phone"),
+            () -> assertEquals(expected.getProperty("address"), report.getAddress(), "address"),
+            () -> assertEquals(expected.getProperty("apartment"), report.getApartment(), "apartment"),
+            () -> assertEquals(expected.getProperty("description"), report.getDescription(), "description"));
+    }
+}